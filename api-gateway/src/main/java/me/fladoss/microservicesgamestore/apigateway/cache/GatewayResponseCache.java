@@ -0,0 +1,70 @@
+package me.fladoss.microservicesgamestore.apigateway.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+// Responses cached by the ResponseCache route filter, bounded by total body size.
+// Entries are futures: the first request for a key stores an incomplete one and later requests wait on it
+// instead of going upstream. A future completed with null (the response was not cacheable) is dropped.
+@Component
+public class GatewayResponseCache {
+
+    public record CachedResponse(HttpStatusCode status, HttpHeaders headers, byte[] body, Instant storedAt, Duration timeToLive) {
+    }
+
+    // Rough per-entry overhead of key, headers and bookkeeping
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final AsyncCache<String, CachedResponse> cache;
+
+    public GatewayResponseCache(@Value("${gateway.response-cache.max-size:64MB}") DataSize maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, CachedResponse response) -> ENTRY_OVERHEAD + key.length() + response.body().length)
+                .expireAfter(new Expiry<String, CachedResponse>() {
+                    @Override
+                    public long expireAfterCreate(String key, CachedResponse response, long currentTime) {
+                        return response.timeToLive().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return response.timeToLive().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, CachedResponse response, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .buildAsync();
+    }
+
+    // Returns the entry already present (complete or still loading), or null after storing loading
+    public CompletableFuture<CachedResponse> putIfAbsent(String key, CompletableFuture<CachedResponse> loading) {
+        return cache.asMap().putIfAbsent(key, loading);
+    }
+
+    public void invalidateRoute(String routeId) {
+        String prefix = routeId + " ";
+        cache.asMap().keySet().removeIf(key -> key.startsWith(prefix));
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+}
@@ -0,0 +1,36 @@
+package me.fladoss.microservicesgamestore.apigateway.cache;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+// GET /actuator/gatewayresponsecache shows the entry count,
+// DELETE /actuator/gatewayresponsecache[?routeId=...] drops all entries or those of one route
+@Component
+@Endpoint(id = "gatewayresponsecache")
+public class GatewayResponseCacheEndpoint {
+
+    private final GatewayResponseCache responseCache;
+
+    public GatewayResponseCacheEndpoint(GatewayResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @ReadOperation
+    public Map<String, Object> entries() {
+        return Map.of("entries", responseCache.size());
+    }
+
+    @DeleteOperation
+    public void invalidate(@Nullable String routeId) {
+        if (routeId == null) {
+            responseCache.invalidateAll();
+        } else {
+            responseCache.invalidateRoute(routeId);
+        }
+    }
+}
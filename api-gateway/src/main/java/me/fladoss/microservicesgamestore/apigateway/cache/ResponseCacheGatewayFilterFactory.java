@@ -0,0 +1,240 @@
+package me.fladoss.microservicesgamestore.apigateway.cache;
+
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Caches successful GET responses of a route, keyed by route, path, query and the configured request headers.
+// Concurrent misses for one key share a single upstream call. Cache-Control is honoured: no-store, private and
+// no-cache responses are not stored, s-maxage or max-age shortens the configured time to live, and a request
+// with no-cache or no-store skips the cache. A successful write (POST, PUT, PATCH, DELETE) through the route
+// drops the route's entries.
+//   filters: ResponseCache=30s
+@Component
+public class ResponseCacheGatewayFilterFactory extends AbstractGatewayFilterFactory<ResponseCacheGatewayFilterFactory.Config> {
+
+    public static final String X_CACHE = "X-Cache";
+
+    private static final Set<String> UNCACHED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(Locale.ROOT),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(Locale.ROOT),
+            "keep-alive",
+            X_CACHE.toLowerCase(Locale.ROOT));
+
+    private static final Set<HttpMethod> SAFE_METHODS = Set.of(HttpMethod.GET, HttpMethod.HEAD, HttpMethod.OPTIONS, HttpMethod.TRACE);
+
+    private static final Pattern S_MAX_AGE = Pattern.compile("s-maxage\\s*=\\s*\"?(\\d+)");
+
+    private static final Pattern MAX_AGE = Pattern.compile("(?<![-\\w])max-age\\s*=\\s*\"?(\\d+)");
+
+    private final GatewayResponseCache responseCache;
+
+    public ResponseCacheGatewayFilterFactory(GatewayResponseCache responseCache) {
+        super(Config.class);
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("timeToLive");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return (exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+            String routeId = route != null ? route.getId() : "";
+
+            if (!SAFE_METHODS.contains(request.getMethod())) {
+                return chain.filter(exchange).doOnSuccess(ignored -> {
+                    HttpStatusCode status = exchange.getResponse().getStatusCode();
+                    if (status == null || status.is2xxSuccessful()) {
+                        responseCache.invalidateRoute(routeId);
+                    }
+                });
+            }
+            if (request.getMethod() != HttpMethod.GET || bypassesCache(request)) {
+                return chain.filter(exchange);
+            }
+
+            String key = keyOf(routeId, request, config);
+            CompletableFuture<GatewayResponseCache.CachedResponse> loading = new CompletableFuture<>();
+            CompletableFuture<GatewayResponseCache.CachedResponse> existing = responseCache.putIfAbsent(key, loading);
+
+            if (existing != null) {
+                // Hit, or a miss already on its way upstream; cancelling this request must not cancel the shared load
+                return Mono.fromFuture(existing, true)
+                        .map(Optional::of)
+                        .defaultIfEmpty(Optional.empty())
+                        .flatMap(cached -> cached.isPresent()
+                                ? writeCached(exchange, cached.get())
+                                : chain.filter(exchange));
+            }
+
+            ServerHttpResponse capturingResponse = new ServerHttpResponseDecorator(exchange.getResponse()) {
+                @Override
+                public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+                    Duration timeToLive = timeToLive(getStatusCode(), getHeaders(), config.getTimeToLive());
+                    if (timeToLive == null) {
+                        loading.complete(null);
+                        return super.writeWith(body);
+                    }
+
+                    getHeaders().set(X_CACHE, "MISS");
+                    return DataBufferUtils.join(body)
+                            .map(joined -> {
+                                byte[] bytes = new byte[joined.readableByteCount()];
+                                joined.read(bytes);
+                                DataBufferUtils.release(joined);
+                                return bytes;
+                            })
+                            .defaultIfEmpty(new byte[0])
+                            .flatMap(bytes -> {
+                                loading.complete(new GatewayResponseCache.CachedResponse(
+                                        getStatusCode(), copyHeaders(getHeaders()), bytes, Instant.now(), timeToLive));
+                                return super.writeWith(Mono.just(bufferFactory().wrap(bytes)));
+                            });
+                }
+
+                @Override
+                public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+                    // Streamed responses are not cached
+                    loading.complete(null);
+                    return super.writeAndFlushWith(body);
+                }
+            };
+
+            return chain.filter(exchange.mutate().response(capturingResponse).build())
+                    // Errors, cancellation or no body written: waiters go upstream themselves
+                    .doFinally(signalType -> loading.complete(null));
+        };
+    }
+
+    private static boolean bypassesCache(ServerHttpRequest request) {
+        String cacheControl = String.join(",", request.getHeaders().getOrEmpty(HttpHeaders.CACHE_CONTROL)).toLowerCase(Locale.ROOT);
+        return cacheControl.contains("no-cache") || cacheControl.contains("no-store")
+                || request.getHeaders().containsKey(HttpHeaders.RANGE);
+    }
+
+    private static String keyOf(String routeId, ServerHttpRequest request, Config config) {
+        StringBuilder key = new StringBuilder(routeId).append(' ').append(request.getURI().getRawPath());
+        if (request.getURI().getRawQuery() != null) {
+            key.append('?').append(request.getURI().getRawQuery());
+        }
+        for (String header : config.getKeyHeaders()) {
+            key.append('\n').append(header).append(':').append(String.join(",", request.getHeaders().getOrEmpty(header)));
+        }
+        return key.toString();
+    }
+
+    // null when the response must not be stored
+    static Duration timeToLive(HttpStatusCode status, HttpHeaders headers, Duration limit) {
+        if (status == null || status.value() != HttpStatus.OK.value()
+                || headers.containsKey(HttpHeaders.SET_COOKIE)
+                || headers.getOrEmpty(HttpHeaders.VARY).contains("*")) {
+            return null;
+        }
+
+        String cacheControl = String.join(",", headers.getOrEmpty(HttpHeaders.CACHE_CONTROL)).toLowerCase(Locale.ROOT);
+        if (cacheControl.contains("no-store") || cacheControl.contains("private")) {
+            return null;
+        }
+
+        // s-maxage is addressed to shared caches like this one and overrides max-age and no-cache
+        Matcher sMaxAge = S_MAX_AGE.matcher(cacheControl);
+        Duration timeToLive = limit;
+        if (sMaxAge.find()) {
+            timeToLive = min(limit, Duration.ofSeconds(Long.parseLong(sMaxAge.group(1))));
+        } else if (cacheControl.contains("no-cache")) {
+            return null;
+        } else {
+            Matcher maxAge = MAX_AGE.matcher(cacheControl);
+            if (maxAge.find()) {
+                timeToLive = min(limit, Duration.ofSeconds(Long.parseLong(maxAge.group(1))));
+            }
+        }
+
+        return timeToLive.isZero() || timeToLive.isNegative() ? null : timeToLive;
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+
+    private static HttpHeaders copyHeaders(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!UNCACHED_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                copy.put(name, List.copyOf(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+
+    private static Mono<Void> writeCached(ServerWebExchange exchange, GatewayResponseCache.CachedResponse cached) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().putAll(cached.headers());
+        response.getHeaders().set(X_CACHE, "HIT");
+        response.getHeaders().set(HttpHeaders.AGE, String.valueOf(Duration.between(cached.storedAt(), Instant.now()).toSeconds()));
+
+        String eTag = cached.headers().getETag();
+        if (eTag != null && exchange.getRequest().getHeaders().getIfNoneMatch().contains(eTag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+            return response.setComplete();
+        }
+
+        response.setStatusCode(cached.status());
+        return response.writeWith(Flux.just(response.bufferFactory().wrap(cached.body())));
+    }
+
+    public static class Config {
+
+        // Upper bound; a shorter s-maxage or max-age from upstream wins
+        private Duration timeToLive = Duration.ofSeconds(30);
+
+        private List<String> keyHeaders = List.of(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+
+        public List<String> getKeyHeaders() {
+            return keyHeaders;
+        }
+
+        public void setKeyHeaders(List<String> keyHeaders) {
+            this.keyHeaders = keyHeaders;
+        }
+    }
+}
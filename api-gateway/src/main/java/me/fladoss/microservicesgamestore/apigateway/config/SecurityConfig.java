@@ -2,6 +2,7 @@ package me.fladoss.microservicesgamestore.apigateway.config;
 
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
@@ -18,6 +19,11 @@ public class SecurityConfig {
                 .authorizeExchange(exchange -> exchange
                         .pathMatchers("/eureka/**")
                         .permitAll()
+                        // The catalog is public; anonymous reads are mostly answered by the response cache
+                        .pathMatchers(HttpMethod.GET, "/api/product", "/api/product/**")
+                        .permitAll()
+                        .pathMatchers(HttpMethod.GET, "/api/storefront/**")
+                        .permitAll()
                         .anyExchange()
                         .authenticated()
                 )
@@ -0,0 +1,119 @@
+package me.fladoss.microservicesgamestore.apigateway.loadbalancer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Records in-flight requests, response times and failures of every load-balanced call per instance.
+// A transport error or a 5xx counts as a failure; failureThreshold failures in a row eject the instance
+// for the ejection duration. Cancelled calls (timeouts, client disconnects) never complete here; their
+// in-flight entries expire after the in-flight timeout and count as failures, so an instance too slow
+// to answer before its callers give up gets ejected like one that errors.
+public class InstanceLoadTracker implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private static final Logger log = LoggerFactory.getLogger(InstanceLoadTracker.class);
+
+    private final Map<String, InstanceStats> stats = new ConcurrentHashMap<>();
+
+    private final double ewmaWeight;
+
+    private final long decayAfterMillis;
+
+    private final int failureThreshold;
+
+    private final long ejectionMillis;
+
+    private final long inFlightTimeoutNanos;
+
+    public InstanceLoadTracker(double ewmaWeight, Duration decayAfter, int failureThreshold, Duration ejection, Duration inFlightTimeout) {
+        this.ewmaWeight = ewmaWeight;
+        this.decayAfterMillis = decayAfter.toMillis();
+        this.failureThreshold = failureThreshold;
+        this.ejectionMillis = ejection.toMillis();
+        this.inFlightTimeoutNanos = inFlightTimeout.toNanos();
+    }
+
+    // Expires the instance's abandoned requests first, so the choice sees them as failures rather than load
+    public InstanceStats statsOf(ServiceInstance instance) {
+        InstanceStats instanceStats = trackedStatsOf(instance);
+
+        int abandoned = instanceStats.expireAbandoned(System.nanoTime());
+        if (abandoned > 0) {
+            long nowMillis = System.currentTimeMillis();
+            for (int i = 0; i < abandoned; i++) {
+                recordFailure(instance, instanceStats, nowMillis);
+            }
+        }
+
+        return instanceStats;
+    }
+
+    public long getDecayAfterMillis() {
+        return decayAfterMillis;
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer()) {
+            trackedStatsOf(lbResponse.getServer()).requestStarted(request);
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        // Discarded requests never reached an instance
+        if (completionContext.status() == CompletionContext.Status.DISCARD || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+
+        ServiceInstance instance = lbResponse.getServer();
+        // A slow request that completes is not abandoned, however long it took
+        InstanceStats instanceStats = trackedStatsOf(instance);
+        long nowMillis = System.currentTimeMillis();
+        Long startNanos = instanceStats.requestFinished(completionContext.getLoadBalancerRequest());
+
+        boolean failed = completionContext.status() == CompletionContext.Status.FAILED
+                || completionContext.getClientResponse() instanceof ResponseData responseData
+                && responseData.getHttpStatus() != null
+                && responseData.getHttpStatus().is5xxServerError();
+
+        if (failed) {
+            recordFailure(instance, instanceStats, nowMillis);
+            return;
+        }
+
+        instanceStats.recordSuccess();
+        if (startNanos != null) {
+            instanceStats.recordLatency(System.nanoTime() - startNanos, ewmaWeight, nowMillis, decayAfterMillis);
+        }
+    }
+
+    private InstanceStats trackedStatsOf(ServiceInstance instance) {
+        return stats.computeIfAbsent(keyOf(instance), key -> new InstanceStats(inFlightTimeoutNanos));
+    }
+
+    private void recordFailure(ServiceInstance instance, InstanceStats instanceStats, long nowMillis) {
+        if (instanceStats.recordFailure(failureThreshold, ejectionMillis, nowMillis)) {
+            log.warn("Ejected {} of {} for {} ms after {} failures in a row",
+                    keyOf(instance), instance.getServiceId(), ejectionMillis, failureThreshold);
+        }
+    }
+
+    private static String keyOf(ServiceInstance instance) {
+        return instance.getServiceId() + "/" + instance.getHost() + ":" + instance.getPort();
+    }
+}
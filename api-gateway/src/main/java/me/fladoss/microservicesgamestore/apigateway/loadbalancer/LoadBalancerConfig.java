@@ -0,0 +1,28 @@
+package me.fladoss.microservicesgamestore.apigateway.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// gateway.load-balancer.strategy=latency-aware (default) replaces round robin for the lb:// routes and the
+// storefront's calls; round-robin restores Spring Cloud's default.
+// The other classes of this package are kept identical to order-service's copy apart from the package name.
+@Configuration
+@ConditionalOnProperty(name = "gateway.load-balancer.strategy", havingValue = "latency-aware", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    // Lives in the main context: shared by the load balancers of all services and found by their request lifecycle
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(@Value("${gateway.load-balancer.ewma-weight:0.3}") double ewmaWeight,
+                                                   @Value("${gateway.load-balancer.decay-after:10s}") Duration decayAfter,
+                                                   @Value("${gateway.load-balancer.failure-threshold:5}") int failureThreshold,
+                                                   @Value("${gateway.load-balancer.ejection:30s}") Duration ejection,
+                                                   @Value("${gateway.load-balancer.in-flight-timeout:10s}") Duration inFlightTimeout) {
+        return new InstanceLoadTracker(ewmaWeight, decayAfter, failureThreshold, ejection, inFlightTimeout);
+    }
+}
@@ -0,0 +1,159 @@
+package me.fladoss.microservicesgamestore.apigateway.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-memory token buckets for the RequestRateLimiter filter, one per route and key.
+// Each bucket is a single AtomicLong holding the GCRA "theoretical arrival time", so taking tokens is one CAS
+// without locks; this is equivalent to a bucket of burst-capacity tokens refilled at replenish-rate per second.
+// Limits are per gateway instance; routes that need a limit shared across instances can use the
+// Redis-backed #{@redisRateLimiter} instead.
+//   filters[n].name=RequestRateLimiter
+//   filters[n].args.local-rate-limiter.replenish-rate=5
+//   filters[n].args.local-rate-limiter.burst-capacity=10
+@Component
+@Primary
+public class LocalTokenBucketRateLimiter extends AbstractRateLimiter<LocalTokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "local-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    // Above one token per nanosecond the emission interval would round down to zero
+    private static final int MAX_REPLENISH_RATE = 1_000_000_000;
+
+    private final Cache<String, AtomicLong> buckets;
+
+    private final Config defaultConfig;
+
+    private final MeterRegistry meterRegistry;
+
+    public LocalTokenBucketRateLimiter(ConfigurationService configurationService,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${gateway.rate-limit.replenish-rate:10}") int replenishRate,
+                                       @Value("${gateway.rate-limit.burst-capacity:20}") int burstCapacity,
+                                       @Value("${gateway.rate-limit.max-keys:100000}") long maxKeys) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        if (replenishRate < 1 || replenishRate > MAX_REPLENISH_RATE) {
+            throw new IllegalArgumentException("gateway.rate-limit.replenish-rate must be between 1 and " + MAX_REPLENISH_RATE);
+        }
+        if (burstCapacity < 0) {
+            throw new IllegalArgumentException("gateway.rate-limit.burst-capacity must not be negative");
+        }
+        this.meterRegistry = meterRegistry;
+        this.defaultConfig = new Config();
+        this.defaultConfig.setReplenishRate(replenishRate);
+        this.defaultConfig.setBurstCapacity(burstCapacity);
+        // A bucket idle for 10 minutes has refilled at any realistic rate, so dropping it loses nothing
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        return Mono.fromSupplier(() -> tryAcquire(routeId, id));
+    }
+
+    private Response tryAcquire(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+
+        long interval = NANOS_PER_SECOND / config.getReplenishRate();
+        long increment = interval * config.getRequestedTokens();
+        long tolerance = interval * config.getBurstCapacity();
+        long now = System.nanoTime();
+
+        AtomicLong bucket = buckets.get(routeId + ' ' + id, key -> new AtomicLong(now));
+
+        while (true) {
+            long arrival = bucket.get();
+            long nextArrival = Math.max(arrival, now) + increment;
+            long wait = nextArrival - now - tolerance;
+
+            if (wait > 0) {
+                meterRegistry.counter("gateway.rate-limit.rejected", "route", routeId).increment();
+
+                Map<String, String> headers = headers(config, 0);
+                headers.put(HttpHeaders.RETRY_AFTER, String.valueOf((wait + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND));
+                return new Response(false, headers);
+            }
+
+            if (bucket.compareAndSet(arrival, nextArrival)) {
+                return new Response(true, headers(config, (tolerance - (nextArrival - now)) / interval));
+            }
+        }
+    }
+
+    private static Map<String, String> headers(Config config, long remaining) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf(remaining));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        return headers;
+    }
+
+    @Validated
+    public static class Config {
+
+        // Tokens added per second
+        @Min(1)
+        @Max(MAX_REPLENISH_RATE)
+        private int replenishRate = 10;
+
+        // Most tokens a bucket holds, i.e. the largest burst
+        @Min(0)
+        private int burstCapacity = 20;
+
+        // Tokens one request takes
+        @Min(1)
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() {
+            return replenishRate;
+        }
+
+        public void setReplenishRate(int replenishRate) {
+            this.replenishRate = replenishRate;
+        }
+
+        public int getBurstCapacity() {
+            return burstCapacity;
+        }
+
+        public void setBurstCapacity(int burstCapacity) {
+            this.burstCapacity = burstCapacity;
+        }
+
+        public int getRequestedTokens() {
+            return requestedTokens;
+        }
+
+        public void setRequestedTokens(int requestedTokens) {
+            this.requestedTokens = requestedTokens;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package me.fladoss.microservicesgamestore.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+@Configuration
+public class RateLimitKeyResolverConfig {
+
+    // Authenticated requests are limited per JWT subject, anonymous ones per client address.
+    // Behind a proxy, set server.forward-headers-strategy=framework so the address comes from X-Forwarded-For.
+    @Bean
+    public KeyResolver subjectOrClientAddressKeyResolver() {
+        return exchange -> exchange.getPrincipal()
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(principal -> "sub:" + ((JwtAuthenticationToken) principal).getToken().getSubject())
+                .switchIfEmpty(Mono.fromSupplier(() -> {
+                    InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+                    if (remoteAddress == null) {
+                        return "ip:unknown";
+                    }
+                    // An unresolved address has no InetAddress, only the host string
+                    return "ip:" + (remoteAddress.getAddress() != null
+                            ? remoteAddress.getAddress().getHostAddress()
+                            : remoteAddress.getHostString());
+                }));
+    }
+}
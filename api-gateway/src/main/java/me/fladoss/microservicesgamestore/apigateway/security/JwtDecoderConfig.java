@@ -0,0 +1,42 @@
+package me.fladoss.microservicesgamestore.apigateway.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+// Replaces Boot's issuer-uri decoder: same validation (signature, timestamps, issuer), but keys come from
+// a background-refreshed JWK set and verified tokens are cached
+@Configuration
+public class JwtDecoderConfig {
+
+    @Bean
+    public RefreshingJwkSet refreshingJwkSet(WebClient.Builder webClientBuilder,
+                                             @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+                                             @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri:}") String jwkSetUri,
+                                             @Value("${gateway.jwt.jwks.refresh-interval:5m}") Duration refreshInterval,
+                                             @Value("${gateway.jwt.jwks.retry-interval:10s}") Duration retryInterval,
+                                             @Value("${gateway.jwt.jwks.unknown-key-cooldown:30s}") Duration unknownKeyCooldown,
+                                             @Value("${gateway.jwt.jwks.startup-wait:10s}") Duration startupWait,
+                                             @Value("${gateway.jwt.jwks.unknown-key-wait:2s}") Duration unknownKeyWait) {
+        return new RefreshingJwkSet(webClientBuilder.build(), issuerUri, jwkSetUri, refreshInterval, retryInterval, unknownKeyCooldown,
+                startupWait, unknownKeyWait);
+    }
+
+    @Bean
+    public CachingReactiveJwtDecoder jwtDecoder(RefreshingJwkSet refreshingJwkSet,
+                                                @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String issuerUri,
+                                                @Value("${gateway.jwt.cache.max-size:10000}") long maxSize,
+                                                @Value("${gateway.jwt.cache.max-ttl:10m}") Duration maxTimeToLive) {
+        NimbusReactiveJwtDecoder nimbusDecoder = NimbusReactiveJwtDecoder.withJwkSource(refreshingJwkSet::select).build();
+        nimbusDecoder.setJwtValidator(JwtValidators.createDefaultWithIssuer(issuerUri));
+
+        CachingReactiveJwtDecoder jwtDecoder = new CachingReactiveJwtDecoder(nimbusDecoder, maxSize, maxTimeToLive);
+        refreshingJwkSet.setKeysRemovedListener(jwtDecoder::evictSignedBy);
+        return jwtDecoder;
+    }
+}
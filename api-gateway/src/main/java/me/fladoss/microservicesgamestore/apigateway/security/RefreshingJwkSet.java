@@ -0,0 +1,223 @@
+package me.fladoss.microservicesgamestore.apigateway.security;
+
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKMatcher;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jwt.SignedJWT;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+// The issuer's signing keys, fetched on startup and then in the background every refresh interval, so token
+// verification normally only reads the in-memory set. A token signed with an unknown key id (a key rollover)
+// waits, up to the unknown-key wait, for an early refresh started at most once per unknown-key cooldown.
+// There is only ever one fetch in flight; everyone who needs fresh keys waits on that one.
+public class RefreshingJwkSet {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshingJwkSet.class);
+
+    private final WebClient webClient;
+
+    private final String issuerUri;
+
+    private final Duration refreshInterval;
+
+    private final Duration retryInterval;
+
+    private final Duration unknownKeyCooldown;
+
+    private final Duration startupWait;
+
+    private final Duration unknownKeyWait;
+
+    private final AtomicLong lastEarlyRefresh = new AtomicLong();
+
+    private Mono<Void> inFlightRefresh;
+
+    private volatile String jwkSetUri;
+
+    private volatile JWKSet jwkSet = new JWKSet();
+
+    private volatile Consumer<Set<String>> keysRemovedListener = keyIds -> {
+    };
+
+    private volatile Disposable scheduledRefresh;
+
+    public RefreshingJwkSet(WebClient webClient, String issuerUri, String jwkSetUri,
+                            Duration refreshInterval, Duration retryInterval, Duration unknownKeyCooldown,
+                            Duration startupWait, Duration unknownKeyWait) {
+        this.webClient = webClient;
+        this.issuerUri = issuerUri;
+        this.jwkSetUri = jwkSetUri == null || jwkSetUri.isBlank() ? null : jwkSetUri;
+        this.refreshInterval = refreshInterval;
+        this.retryInterval = retryInterval;
+        this.unknownKeyCooldown = unknownKeyCooldown;
+        this.startupWait = startupWait;
+        this.unknownKeyWait = unknownKeyWait;
+        // nanoTime has an arbitrary origin; the first unknown key may refresh right away
+        this.lastEarlyRefresh.set(System.nanoTime() - unknownKeyCooldown.toNanos());
+    }
+
+    // Called with the ids of keys that disappeared from the set
+    public void setKeysRemovedListener(Consumer<Set<String>> keysRemovedListener) {
+        this.keysRemovedListener = keysRemovedListener;
+    }
+
+    // Waits for the first fetch so valid tokens are not turned away right after startup. An issuer that is
+    // not reachable yet does not fail startup: fetching goes on in the background, and tokens wait for it.
+    @PostConstruct
+    public void start() {
+        try {
+            sharedRefresh().block(startupWait);
+            scheduleRefresh(refreshInterval);
+        } catch (RuntimeException e) {
+            log.warn("Error fetching the JWK set of {} on startup, retrying in {}: {}", issuerUri, retryInterval, e.toString());
+            scheduleRefresh(retryInterval);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        Disposable refresh = scheduledRefresh;
+        if (refresh != null) {
+            refresh.dispose();
+        }
+    }
+
+    // JWK source of the Nimbus decoder
+    public Flux<JWK> select(SignedJWT jwt) {
+        JWKSelector selector = new JWKSelector(JWKMatcher.forJWSHeader(jwt.getHeader()));
+        List<JWK> keys = selector.select(jwkSet);
+
+        if (!keys.isEmpty() || !mayRefreshForUnknownKey()) {
+            return Flux.fromIterable(keys);
+        }
+
+        return sharedRefresh()
+                .timeout(unknownKeyWait)
+                .onErrorResume(error -> {
+                    log.warn("Error fetching the JWK set of {} for an unknown key: {}", issuerUri, error.toString());
+                    return Mono.empty();
+                })
+                .thenMany(Flux.defer(() -> Flux.fromIterable(selector.select(jwkSet))));
+    }
+
+    private void scheduleRefresh(Duration delay) {
+        scheduledRefresh = Mono.delay(delay)
+                .then(Mono.defer(this::sharedRefresh))
+                .subscribe(
+                        ignored -> {
+                        },
+                        error -> {
+                            log.warn("Error fetching the JWK set of {}, retrying in {}: {}", issuerUri, retryInterval, error.toString());
+                            scheduleRefresh(retryInterval);
+                        },
+                        () -> scheduleRefresh(refreshInterval));
+    }
+
+    // Joining a fetch already in flight is free; starting one is allowed once per cooldown, or any time while
+    // there are no keys at all
+    private boolean mayRefreshForUnknownKey() {
+        synchronized (this) {
+            if (inFlightRefresh != null || jwkSet.getKeys().isEmpty()) {
+                return true;
+            }
+        }
+
+        long now = System.nanoTime();
+        long last = lastEarlyRefresh.get();
+        return now - last >= unknownKeyCooldown.toNanos() && lastEarlyRefresh.compareAndSet(last, now);
+    }
+
+    // The fetch in flight, or a new one. It runs to completion even if every waiter gives up on it.
+    private synchronized Mono<Void> sharedRefresh() {
+        if (inFlightRefresh != null) {
+            return inFlightRefresh;
+        }
+
+        Mono<Void> refresh = refresh()
+                .doFinally(signal -> clearInFlightRefresh())
+                .cache();
+        inFlightRefresh = refresh;
+        refresh.subscribe(
+                ignored -> {
+                },
+                error -> {
+                });
+        return refresh;
+    }
+
+    private synchronized void clearInFlightRefresh() {
+        inFlightRefresh = null;
+    }
+
+    private Mono<Void> refresh() {
+        return resolveJwkSetUri()
+                .flatMap(uri -> webClient.get().uri(uri).retrieve().bodyToMono(String.class))
+                .map(RefreshingJwkSet::parse)
+                .doOnNext(this::replace)
+                .then();
+    }
+
+    private Mono<String> resolveJwkSetUri() {
+        if (jwkSetUri != null) {
+            return Mono.just(jwkSetUri);
+        }
+
+        return webClient.get()
+                .uri(issuerUri + "/.well-known/openid-configuration")
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<Map<String, Object>>() {
+                })
+                .map(configuration -> (String) configuration.get("jwks_uri"))
+                .doOnNext(uri -> jwkSetUri = uri);
+    }
+
+    private void replace(JWKSet fetched) {
+        Set<String> previousKeyIds = keyIds(jwkSet);
+        Set<String> removedKeyIds = new HashSet<>(previousKeyIds);
+        removedKeyIds.removeAll(keyIds(fetched));
+
+        jwkSet = fetched;
+
+        if (!removedKeyIds.isEmpty()) {
+            log.info("Signing keys {} of {} were retired", removedKeyIds, issuerUri);
+            keysRemovedListener.accept(removedKeyIds);
+        }
+        if (!keyIds(fetched).equals(previousKeyIds)) {
+            log.info("Loaded {} signing keys of {}", fetched.getKeys().size(), issuerUri);
+        }
+    }
+
+    private static Set<String> keyIds(JWKSet set) {
+        return set.getKeys().stream()
+                .map(JWK::getKeyID)
+                .filter(keyId -> keyId != null)
+                .collect(Collectors.toSet());
+    }
+
+    private static JWKSet parse(String body) {
+        try {
+            return JWKSet.parse(body);
+        } catch (ParseException e) {
+            throw new IllegalStateException("Malformed JWK set", e);
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package me.fladoss.microservicesgamestore.apigateway.storefront;
+
+import java.util.List;
+
+// A page of product-service's listing
+public record CatalogPage(List<CatalogProduct> products, String nextCursor) {
+}
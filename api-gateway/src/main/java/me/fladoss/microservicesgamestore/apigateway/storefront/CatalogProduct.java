@@ -0,0 +1,8 @@
+package me.fladoss.microservicesgamestore.apigateway.storefront;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// A product as product-service returns it
+public record CatalogProduct(Long id, String skuCode, String name, String description, BigDecimal price, Instant updatedAt) {
+}
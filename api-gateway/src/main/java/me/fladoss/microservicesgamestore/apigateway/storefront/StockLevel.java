@@ -0,0 +1,5 @@
+package me.fladoss.microservicesgamestore.apigateway.storefront;
+
+// Stock of one SKU as inventory-service returns it
+public record StockLevel(String skuCode, boolean inStock, Integer quantity) {
+}
@@ -0,0 +1,31 @@
+package me.fladoss.microservicesgamestore.apigateway.storefront;
+
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+// Products merged with their availability, so a storefront page needs one request instead of one per service
+@RestController
+@RequestMapping("/api/storefront/products")
+public class StorefrontController {
+
+    private final StorefrontService storefrontService;
+
+    public StorefrontController(StorefrontService storefrontService) {
+        this.storefrontService = storefrontService;
+    }
+
+    // Same parameters as GET /api/product
+    @GetMapping
+    public Mono<StorefrontPage> getProducts(ServerHttpRequest request) {
+        return storefrontService.getProducts(request.getQueryParams());
+    }
+
+    @GetMapping("/{id}")
+    public Mono<StorefrontItem> getProduct(@PathVariable Long id) {
+        return storefrontService.getProduct(id);
+    }
+}
@@ -0,0 +1,5 @@
+package me.fladoss.microservicesgamestore.apigateway.storefront;
+
+// partial is true when availability is missing because inventory-service failed or was too slow
+public record StorefrontItem(StorefrontProduct product, boolean partial) {
+}
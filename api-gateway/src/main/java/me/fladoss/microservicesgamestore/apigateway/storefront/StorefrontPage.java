@@ -0,0 +1,7 @@
+package me.fladoss.microservicesgamestore.apigateway.storefront;
+
+import java.util.List;
+
+// partial is true when availability is missing because inventory-service failed or was too slow
+public record StorefrontPage(List<StorefrontProduct> products, String nextCursor, boolean partial) {
+}
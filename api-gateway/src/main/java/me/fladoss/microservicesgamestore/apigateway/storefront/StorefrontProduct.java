@@ -0,0 +1,16 @@
+package me.fladoss.microservicesgamestore.apigateway.storefront;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// inStock and quantity are null when the product has no SKU or its stock could not be looked up in time
+public record StorefrontProduct(Long id, String skuCode, String name, String description, BigDecimal price,
+                                Instant updatedAt, Boolean inStock, Integer quantity) {
+
+    static StorefrontProduct of(CatalogProduct product, StockLevel stock) {
+        return new StorefrontProduct(product.id(), product.skuCode(), product.name(), product.description(),
+                product.price(), product.updatedAt(),
+                stock != null ? stock.inStock() : null,
+                stock != null ? stock.quantity() : null);
+    }
+}
@@ -0,0 +1,141 @@
+package me.fladoss.microservicesgamestore.apigateway.storefront;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+// Answers a storefront page with one edge request: the products come from product-service and the
+// availability of the whole page from a single inventory-service lookup. The products are required;
+// availability is best effort, and when inventory-service fails or exceeds its timeout the products are
+// returned without it and the result is marked partial.
+@Service
+public class StorefrontService {
+
+    private static final Logger log = LoggerFactory.getLogger(StorefrontService.class);
+
+    // Listing parameters passed through to product-service
+    private static final List<String> LISTING_PARAMETERS =
+            List.of("minPrice", "maxPrice", "namePrefix", "sort", "direction", "cursor", "size");
+
+    private final WebClient webClient;
+
+    private final Duration productTimeout;
+
+    private final Duration inventoryTimeout;
+
+    public StorefrontService(WebClient.Builder webClientBuilder,
+                             ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction,
+                             @Value("${gateway.storefront.product-timeout:2s}") Duration productTimeout,
+                             @Value("${gateway.storefront.inventory-timeout:300ms}") Duration inventoryTimeout) {
+        // Load-balanced copy; the shared builder is also used for non-Eureka hosts such as Keycloak
+        this.webClient = webClientBuilder.clone().filter(loadBalancerFunction).build();
+        this.productTimeout = productTimeout;
+        this.inventoryTimeout = inventoryTimeout;
+    }
+
+    public Mono<StorefrontPage> getProducts(MultiValueMap<String, String> queryParams) {
+        Map<String, String> parameters = new HashMap<>();
+        LISTING_PARAMETERS.forEach(name -> {
+            String value = queryParams.getFirst(name);
+            if (value != null) {
+                parameters.put(name, value);
+            }
+        });
+
+        Mono<CatalogPage> page = webClient.get()
+                .uri("http://product-service/api/product", uriBuilder -> {
+                    // Values are expanded as URI variables so they are fully encoded
+                    parameters.keySet().forEach(name -> uriBuilder.queryParam(name, "{" + name + "}"));
+                    return uriBuilder.build(parameters);
+                })
+                .retrieve()
+                .bodyToMono(CatalogPage.class);
+
+        return fromProductService(page).flatMap(catalogPage -> {
+            List<CatalogProduct> products = catalogPage.products() != null ? catalogPage.products() : List.of();
+
+            return getStock(products).map(stock -> new StorefrontPage(
+                    products.stream().map(product -> StorefrontProduct.of(product, stock.levelOf(product))).toList(),
+                    catalogPage.nextCursor(),
+                    !stock.complete()));
+        });
+    }
+
+    public Mono<StorefrontItem> getProduct(Long id) {
+        Mono<CatalogProduct> product = webClient.get()
+                .uri("http://product-service/api/product/{id}", id)
+                .retrieve()
+                .bodyToMono(CatalogProduct.class);
+
+        return fromProductService(product).flatMap(catalogProduct -> getStock(List.of(catalogProduct))
+                .map(stock -> new StorefrontItem(StorefrontProduct.of(catalogProduct, stock.levelOf(catalogProduct)), !stock.complete())));
+    }
+
+    private Mono<Stock> getStock(List<CatalogProduct> products) {
+        List<String> skuCodes = products.stream()
+                .map(CatalogProduct::skuCode)
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+
+        if (skuCodes.isEmpty()) {
+            return Mono.just(new Stock(Map.of(), true));
+        }
+
+        Map<String, String> skuCodeVariables = new HashMap<>();
+        for (int i = 0; i < skuCodes.size(); i++) {
+            skuCodeVariables.put("skuCode" + i, skuCodes.get(i));
+        }
+
+        return webClient.get()
+                .uri("http://inventory-service/api/inventory", uriBuilder -> {
+                    skuCodeVariables.keySet().forEach(name -> uriBuilder.queryParam("skuCode", "{" + name + "}"));
+                    return uriBuilder.build(skuCodeVariables);
+                })
+                .retrieve()
+                .bodyToFlux(StockLevel.class)
+                .collectMap(StockLevel::skuCode, Function.identity())
+                .timeout(inventoryTimeout)
+                .map(levels -> new Stock(levels, true))
+                .onErrorResume(throwable -> {
+                    log.warn("Storefront answered without availability of {} SKUs: {}", skuCodes.size(), throwable.toString());
+                    return Mono.just(new Stock(Map.of(), false));
+                });
+    }
+
+    // Client errors of product-service are passed on, a timeout becomes 504 and anything else
+    // (5xx, connection errors, no instance registered) a 502
+    private <T> Mono<T> fromProductService(Mono<T> response) {
+        return response
+                .timeout(productTimeout)
+                .onErrorMap(WebClientResponseException.class, e -> new ResponseStatusException(
+                        e.getStatusCode().is4xxClientError() ? e.getStatusCode() : HttpStatus.BAD_GATEWAY,
+                        e.getStatusText()))
+                .onErrorMap(TimeoutException.class, e -> new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT, "product-service timed out"))
+                .onErrorMap(e -> !(e instanceof ResponseStatusException),
+                        e -> new ResponseStatusException(HttpStatus.BAD_GATEWAY, "product-service is unavailable", e));
+    }
+
+    private record Stock(Map<String, StockLevel> levels, boolean complete) {
+
+        StockLevel levelOf(CatalogProduct product) {
+            return product.skuCode() != null ? levels.get(product.skuCode()) : null;
+        }
+    }
+}
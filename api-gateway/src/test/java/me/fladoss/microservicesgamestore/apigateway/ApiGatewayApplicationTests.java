@@ -1,13 +1,25 @@
 package me.fladoss.microservicesgamestore.apigateway;
 
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 
 @SpringBootTest
 class ApiGatewayApplicationTests {
 
+    @Autowired
+    private ApplicationContext applicationContext;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void shouldNotCheckRedisHealthByDefault() {
+        // No route uses Redis unless configured, so an absent Redis must not report the gateway DOWN
+        Assertions.assertFalse(applicationContext.containsBean("redisHealthContributor"));
+    }
+
 }
@@ -0,0 +1,144 @@
+package me.fladoss.microservicesgamestore.apigateway.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class ResponseCacheGatewayFilterFactoryTests {
+
+    private final GatewayResponseCache responseCache = new GatewayResponseCache(DataSize.ofMegabytes(1));
+
+    private final GatewayFilter filter = new ResponseCacheGatewayFilterFactory(responseCache)
+            .apply(new ResponseCacheGatewayFilterFactory.Config());
+
+    private final Route route = Route.async().id("products").uri("http://product-service").predicate(exchange -> true).build();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private HttpHeaders upstreamHeaders = new HttpHeaders();
+
+    private Duration upstreamDelay = Duration.ZERO;
+
+    @Test
+    void shouldCollapseConcurrentMisses() {
+        upstreamDelay = Duration.ofMillis(200);
+
+        MockServerWebExchange first = exchange(MockServerHttpRequest.get("/api/product"));
+        MockServerWebExchange second = exchange(MockServerHttpRequest.get("/api/product"));
+        Mono.when(filter.filter(first, upstream()), filter.filter(second, upstream())).block();
+
+        Assertions.assertEquals(1, upstreamCalls.get());
+        Assertions.assertEquals("body 1", first.getResponse().getBodyAsString().block());
+        Assertions.assertEquals("body 1", second.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void shouldServeHitWithoutGoingUpstream() {
+        get(MockServerHttpRequest.get("/api/product?cursor=a"));
+        MockServerWebExchange hit = get(MockServerHttpRequest.get("/api/product?cursor=a"));
+        get(MockServerHttpRequest.get("/api/product?cursor=b"));
+
+        Assertions.assertEquals(2, upstreamCalls.get());
+        Assertions.assertEquals("HIT", hit.getResponse().getHeaders().getFirst(ResponseCacheGatewayFilterFactory.X_CACHE));
+        Assertions.assertEquals("body 1", hit.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void shouldAnswerNotModifiedOnHitWithMatchingETag() {
+        upstreamHeaders.setETag("W/\"1-abc\"");
+        get(MockServerHttpRequest.get("/api/product"));
+
+        MockServerWebExchange revalidation = get(MockServerHttpRequest.get("/api/product").ifNoneMatch("W/\"1-abc\""));
+
+        Assertions.assertEquals(1, upstreamCalls.get());
+        Assertions.assertEquals(HttpStatus.NOT_MODIFIED, revalidation.getResponse().getStatusCode());
+        Assertions.assertEquals("", revalidation.getResponse().getBodyAsString().defaultIfEmpty("").block());
+    }
+
+    @Test
+    void shouldNotStorePrivateResponses() {
+        upstreamHeaders.setCacheControl("private, max-age=60");
+
+        get(MockServerHttpRequest.get("/api/product"));
+        get(MockServerHttpRequest.get("/api/product"));
+
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldSkipCacheWhenRequestAsksForNoCache() {
+        get(MockServerHttpRequest.get("/api/product"));
+        get(MockServerHttpRequest.get("/api/product").header(HttpHeaders.CACHE_CONTROL, "no-cache"));
+
+        Assertions.assertEquals(2, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldDropRouteEntriesOnSuccessfulWrite() {
+        get(MockServerHttpRequest.get("/api/product"));
+        filter.filter(exchange(MockServerHttpRequest.post("/api/product")), upstream()).block();
+        get(MockServerHttpRequest.get("/api/product"));
+
+        Assertions.assertEquals(3, upstreamCalls.get());
+    }
+
+    @Test
+    void shouldBoundTimeToLiveByCacheControl() {
+        Duration limit = Duration.ofSeconds(30);
+
+        Assertions.assertEquals(limit, ResponseCacheGatewayFilterFactory.timeToLive(HttpStatus.OK, cacheControl("public"), limit));
+        Assertions.assertEquals(Duration.ofSeconds(10), ResponseCacheGatewayFilterFactory.timeToLive(HttpStatus.OK, cacheControl("max-age=10"), limit));
+        Assertions.assertEquals(limit, ResponseCacheGatewayFilterFactory.timeToLive(HttpStatus.OK, cacheControl("max-age=600"), limit));
+        // s-maxage is meant for shared caches and wins over max-age and no-cache
+        Assertions.assertEquals(Duration.ofSeconds(5), ResponseCacheGatewayFilterFactory.timeToLive(HttpStatus.OK, cacheControl("max-age=0, s-maxage=5"), limit));
+        Assertions.assertEquals(Duration.ofSeconds(5), ResponseCacheGatewayFilterFactory.timeToLive(HttpStatus.OK, cacheControl("no-cache, s-maxage=5"), limit));
+
+        Assertions.assertNull(ResponseCacheGatewayFilterFactory.timeToLive(HttpStatus.OK, cacheControl("max-age=0"), limit));
+        Assertions.assertNull(ResponseCacheGatewayFilterFactory.timeToLive(HttpStatus.OK, cacheControl("no-cache"), limit));
+        Assertions.assertNull(ResponseCacheGatewayFilterFactory.timeToLive(HttpStatus.OK, cacheControl("no-store"), limit));
+        Assertions.assertNull(ResponseCacheGatewayFilterFactory.timeToLive(HttpStatus.NOT_FOUND, cacheControl("max-age=10"), limit));
+    }
+
+    private static HttpHeaders cacheControl(String value) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(value);
+        return headers;
+    }
+
+    private MockServerWebExchange get(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = exchange(request);
+        filter.filter(exchange, upstream()).block();
+        return exchange;
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    // Answers 200 with a body numbered by the upstream call
+    private GatewayFilterChain upstream() {
+        return exchange -> Mono.delay(upstreamDelay).then(Mono.defer(() -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().putAll(upstreamHeaders);
+            byte[] body = ("body " + upstreamCalls.incrementAndGet()).getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        }));
+    }
+}
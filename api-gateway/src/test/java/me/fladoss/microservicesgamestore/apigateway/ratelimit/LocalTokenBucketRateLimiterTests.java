@@ -0,0 +1,76 @@
+package me.fladoss.microservicesgamestore.apigateway.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.http.HttpHeaders;
+
+class LocalTokenBucketRateLimiterTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    // One token a second, bursts of three
+    private final LocalTokenBucketRateLimiter rateLimiter = rateLimiter(1, 3);
+
+    @Test
+    void shouldAllowBurstThenDeny() {
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            RateLimiter.Response response = rateLimiter.isAllowed("products", "ip:1").block();
+            Assertions.assertTrue(response.isAllowed());
+            Assertions.assertEquals(String.valueOf(remaining), response.getHeaders().get(LocalTokenBucketRateLimiter.REMAINING_HEADER));
+        }
+
+        RateLimiter.Response denied = rateLimiter.isAllowed("products", "ip:1").block();
+        Assertions.assertFalse(denied.isAllowed());
+        Assertions.assertEquals("0", denied.getHeaders().get(LocalTokenBucketRateLimiter.REMAINING_HEADER));
+        Assertions.assertEquals("1", denied.getHeaders().get(HttpHeaders.RETRY_AFTER));
+        Assertions.assertEquals(1.0, meterRegistry.counter("gateway.rate-limit.rejected", "route", "products").count());
+    }
+
+    @Test
+    void shouldKeepBucketsPerRouteAndKey() {
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.isAllowed("products", "ip:1").block();
+        }
+
+        Assertions.assertFalse(rateLimiter.isAllowed("products", "ip:1").block().isAllowed());
+        Assertions.assertTrue(rateLimiter.isAllowed("products", "ip:2").block().isAllowed());
+        Assertions.assertTrue(rateLimiter.isAllowed("orders", "ip:1").block().isAllowed());
+    }
+
+    @Test
+    void shouldRefillAtReplenishRate() throws InterruptedException {
+        LocalTokenBucketRateLimiter fastRateLimiter = rateLimiter(20, 1);
+        Assertions.assertTrue(fastRateLimiter.isAllowed("products", "ip:1").block().isAllowed());
+        Assertions.assertFalse(fastRateLimiter.isAllowed("products", "ip:1").block().isAllowed());
+
+        Thread.sleep(100);
+
+        Assertions.assertTrue(fastRateLimiter.isAllowed("products", "ip:1").block().isAllowed());
+    }
+
+    @Test
+    void shouldRejectReplenishRateWithoutInterval() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> rateLimiter(0, 3));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> rateLimiter(2_000_000_000, 3));
+
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        LocalTokenBucketRateLimiter.Config config = new LocalTokenBucketRateLimiter.Config();
+        Assertions.assertTrue(validator.validate(config).isEmpty());
+
+        config.setReplenishRate(0);
+        Assertions.assertFalse(validator.validate(config).isEmpty());
+
+        config.setReplenishRate(2_000_000_000);
+        Assertions.assertFalse(validator.validate(config).isEmpty());
+    }
+
+    private LocalTokenBucketRateLimiter rateLimiter(int replenishRate, int burstCapacity) {
+        return new LocalTokenBucketRateLimiter(Mockito.mock(ConfigurationService.class), meterRegistry, replenishRate, burstCapacity, 1000);
+    }
+}
@@ -0,0 +1,25 @@
+package me.fladoss.microservicesgamestore.apigateway.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import java.net.InetSocketAddress;
+
+class RateLimitKeyResolverConfigTests {
+
+    private final KeyResolver keyResolver = new RateLimitKeyResolverConfig().subjectOrClientAddressKeyResolver();
+
+    @Test
+    void shouldResolveAnonymousRequestsByClientAddress() {
+        Assertions.assertEquals("ip:10.0.0.7", resolve(new InetSocketAddress("10.0.0.7", 52100)));
+        Assertions.assertEquals("ip:client.example", resolve(InetSocketAddress.createUnresolved("client.example", 52100)));
+        Assertions.assertEquals("ip:unknown", resolve(null));
+    }
+
+    private String resolve(InetSocketAddress remoteAddress) {
+        return keyResolver.resolve(MockServerWebExchange.from(MockServerHttpRequest.get("/api/product").remoteAddress(remoteAddress))).block();
+    }
+}
@@ -0,0 +1,110 @@
+package me.fladoss.microservicesgamestore.apigateway.security;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class CachingReactiveJwtDecoderTests {
+
+    // What the delegate answers per token: signing key and expiry (null for no exp)
+    private final Map<String, Object[]> tokens = new HashMap<>();
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private final ReactiveJwtDecoder delegate = token -> {
+        verifications.incrementAndGet();
+        Object[] claims = tokens.get(token);
+        if (claims == null) {
+            return Mono.error(new BadJwtException("Bad signature"));
+        }
+        return Mono.just(Jwt.withTokenValue(token)
+                .header("alg", "RS256")
+                .header("kid", claims[0])
+                .subject("user")
+                .claims(map -> {
+                    if (claims[1] != null) {
+                        map.put("exp", claims[1]);
+                    }
+                })
+                .build());
+    };
+
+    private final CachingReactiveJwtDecoder jwtDecoder = new CachingReactiveJwtDecoder(delegate, 100, Duration.ofMinutes(5));
+
+    @Test
+    void shouldVerifyRepeatedTokenOnce() {
+        tokens.put("a", new Object[]{"k1", Instant.now().plusSeconds(60)});
+
+        Assertions.assertEquals("user", jwtDecoder.decode("a").block().getSubject());
+        Assertions.assertEquals("user", jwtDecoder.decode("a").block().getSubject());
+
+        Assertions.assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void shouldNotCacheBeyondExpiry() throws InterruptedException {
+        tokens.put("a", new Object[]{"k1", Instant.now().plusMillis(200)});
+        jwtDecoder.decode("a").block();
+
+        Thread.sleep(300);
+        jwtDecoder.decode("a").block();
+
+        Assertions.assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void shouldNotCacheBeyondMaxTimeToLive() throws InterruptedException {
+        CachingReactiveJwtDecoder shortLivedDecoder = new CachingReactiveJwtDecoder(delegate, 100, Duration.ofMillis(200));
+        tokens.put("a", new Object[]{"k1", Instant.now().plusSeconds(3600)});
+        shortLivedDecoder.decode("a").block();
+        shortLivedDecoder.decode("a").block();
+
+        Thread.sleep(300);
+        shortLivedDecoder.decode("a").block();
+
+        Assertions.assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void shouldNotCacheTokensWithoutExpiry() {
+        tokens.put("a", new Object[]{"k1", null});
+
+        jwtDecoder.decode("a").block();
+        jwtDecoder.decode("a").block();
+
+        Assertions.assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void shouldNotCacheRejectedTokens() {
+        Assertions.assertThrows(BadJwtException.class, () -> jwtDecoder.decode("forged").block());
+        Assertions.assertThrows(BadJwtException.class, () -> jwtDecoder.decode("forged").block());
+
+        Assertions.assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void shouldEvictTokensSignedByRetiredKey() {
+        tokens.put("a", new Object[]{"k1", Instant.now().plusSeconds(60)});
+        tokens.put("b", new Object[]{"k2", Instant.now().plusSeconds(60)});
+        jwtDecoder.decode("a").block();
+        jwtDecoder.decode("b").block();
+
+        jwtDecoder.evictSignedBy(Set.of("k1"));
+        jwtDecoder.decode("a").block();
+        jwtDecoder.decode("b").block();
+
+        // Only the token signed by the retired key is verified again
+        Assertions.assertEquals(3, verifications.get());
+    }
+}
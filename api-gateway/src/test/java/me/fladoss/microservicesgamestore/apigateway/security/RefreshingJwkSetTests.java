@@ -0,0 +1,139 @@
+package me.fladoss.microservicesgamestore.apigateway.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+class RefreshingJwkSetTests {
+
+    private final RSAKey oldKey = generateKey("k1");
+
+    private final RSAKey newKey = generateKey("k2");
+
+    private final AtomicInteger fetches = new AtomicInteger();
+
+    // What the issuer's JWK set endpoint answers with next
+    private final AtomicReference<Mono<ClientResponse>> jwkSetResponse = new AtomicReference<>(respondWith(oldKey));
+
+    private RefreshingJwkSet refreshingJwkSet;
+
+    @AfterEach
+    void tearDown() {
+        refreshingJwkSet.stop();
+    }
+
+    @Test
+    void shouldHaveKeysOnceStarted() {
+        refreshingJwkSet = start(Duration.ofSeconds(2));
+
+        Assertions.assertEquals(List.of("k1"), keyIds(refreshingJwkSet.select(token("k1"))));
+    }
+
+    @Test
+    void shouldWaitForKeysWhenStartupFetchFailed() {
+        jwkSetResponse.set(Mono.just(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build()));
+        refreshingJwkSet = start(Duration.ofSeconds(2));
+
+        jwkSetResponse.set(respondWith(oldKey));
+
+        Assertions.assertEquals(List.of("k1"), keyIds(refreshingJwkSet.select(token("k1"))));
+    }
+
+    @Test
+    void shouldShareOneFetchForConcurrentUnknownKeys() {
+        refreshingJwkSet = start(Duration.ofSeconds(2));
+        Sinks.One<ClientResponse> issuer = Sinks.one();
+        jwkSetResponse.set(issuer.asMono());
+
+        CompletableFuture<List<String>> first = refreshingJwkSet.select(token("k2")).map(JWK::getKeyID).collectList().toFuture();
+        CompletableFuture<List<String>> second = refreshingJwkSet.select(token("k2")).map(JWK::getKeyID).collectList().toFuture();
+        issuer.tryEmitValue(response(oldKey, newKey));
+
+        Assertions.assertEquals(List.of("k2"), first.join());
+        Assertions.assertEquals(List.of("k2"), second.join());
+        // The startup fetch and one shared early refresh
+        Assertions.assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void shouldRejectUnknownKeyWhenFetchTakesTooLong() {
+        refreshingJwkSet = start(Duration.ofMillis(200));
+        jwkSetResponse.set(Mono.never());
+
+        Assertions.assertEquals(List.of(), keyIds(refreshingJwkSet.select(token("k2"))));
+    }
+
+    @Test
+    void shouldNotFetchAgainWithinCooldown() {
+        refreshingJwkSet = start(Duration.ofSeconds(2));
+
+        keyIds(refreshingJwkSet.select(token("k2")));
+        keyIds(refreshingJwkSet.select(token("k3")));
+
+        Assertions.assertEquals(2, fetches.get());
+    }
+
+    private RefreshingJwkSet start(Duration unknownKeyWait) {
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    fetches.incrementAndGet();
+                    return jwkSetResponse.get();
+                })
+                .build();
+
+        RefreshingJwkSet jwkSet = new RefreshingJwkSet(webClient, "http://issuer", "http://issuer/certs",
+                Duration.ofMinutes(5), Duration.ofMinutes(5), Duration.ofMinutes(1), Duration.ofSeconds(2), unknownKeyWait);
+        jwkSet.start();
+        return jwkSet;
+    }
+
+    private static List<String> keyIds(Flux<JWK> keys) {
+        return keys.map(JWK::getKeyID).collectList().block(Duration.ofSeconds(5));
+    }
+
+    private static SignedJWT token(String keyId) {
+        return new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(keyId).build(), new JWTClaimsSet.Builder().build());
+    }
+
+    private static Mono<ClientResponse> respondWith(RSAKey... keys) {
+        return Mono.fromSupplier(() -> response(keys));
+    }
+
+    private static ClientResponse response(RSAKey... keys) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(new JWKSet(List.<JWK>of(keys)).toString())
+                .build();
+    }
+
+    private static RSAKey generateKey(String keyId) {
+        try {
+            return new RSAKeyGenerator(2048).keyID(keyId).algorithm(JWSAlgorithm.RS256).generate();
+        } catch (JOSEException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
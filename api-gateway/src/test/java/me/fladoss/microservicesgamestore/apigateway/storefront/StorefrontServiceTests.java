@@ -0,0 +1,138 @@
+package me.fladoss.microservicesgamestore.apigateway.storefront;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+class StorefrontServiceTests {
+
+    private static final String PRODUCTS = """
+            {"products": [
+                {"id": 1, "skuCode": "talos", "name": "The Talos Principle", "price": 19.99},
+                {"id": 2, "skuCode": "a&b=c", "name": "Odd SKU", "price": 4.99},
+                {"id": 3, "name": "No SKU", "price": 1.99}
+            ], "nextCursor": "next"}
+            """;
+
+    private final List<URI> requested = new ArrayList<>();
+
+    private Function<ClientRequest, Mono<ClientResponse>> productService = request -> json(HttpStatus.OK, PRODUCTS);
+
+    private Function<ClientRequest, Mono<ClientResponse>> inventoryService = request -> json(HttpStatus.OK, """
+            [{"skuCode": "talos", "inStock": true, "quantity": 7}, {"skuCode": "a&b=c", "inStock": false, "quantity": 0}]
+            """);
+
+    private final StorefrontService storefrontService = new StorefrontService(
+            WebClient.builder().exchangeFunction(request -> {
+                requested.add(request.url());
+                return "product-service".equals(request.url().getHost())
+                        ? productService.apply(request)
+                        : inventoryService.apply(request);
+            }),
+            passThroughLoadBalancer(),
+            Duration.ofSeconds(1),
+            Duration.ofMillis(100));
+
+    @Test
+    void shouldMergeAvailabilityIntoProducts() {
+        StorefrontPage page = storefrontService.getProducts(new LinkedMultiValueMap<>()).block();
+
+        Assertions.assertFalse(page.partial());
+        Assertions.assertEquals("next", page.nextCursor());
+        Assertions.assertEquals(7, page.products().get(0).quantity());
+        Assertions.assertEquals(Boolean.FALSE, page.products().get(1).inStock());
+        Assertions.assertNull(page.products().get(2).inStock());
+
+        // One inventory lookup for the page, SKU codes fully encoded
+        URI inventoryUri = requested.get(1);
+        Assertions.assertEquals(2, requested.size());
+        Assertions.assertTrue(inventoryUri.getRawQuery().contains("skuCode=a%26b%3Dc"), inventoryUri.toString());
+        Assertions.assertTrue(inventoryUri.getRawQuery().contains("skuCode=talos"), inventoryUri.toString());
+    }
+
+    @Test
+    void shouldReturnPartialPageWhenInventoryFails() {
+        inventoryService = request -> json(HttpStatus.INTERNAL_SERVER_ERROR, "{}");
+
+        StorefrontPage page = storefrontService.getProducts(new LinkedMultiValueMap<>()).block();
+
+        Assertions.assertTrue(page.partial());
+        Assertions.assertEquals(3, page.products().size());
+        Assertions.assertNull(page.products().get(0).inStock());
+    }
+
+    @Test
+    void shouldReturnPartialPageWhenInventoryIsSlow() {
+        inventoryService = request -> json(HttpStatus.OK, "[]").delayElement(Duration.ofSeconds(1));
+
+        StorefrontPage page = storefrontService.getProducts(new LinkedMultiValueMap<>()).block();
+
+        Assertions.assertTrue(page.partial());
+        Assertions.assertEquals(3, page.products().size());
+    }
+
+    @Test
+    void shouldPassProductClientErrorsOn() {
+        productService = request -> json(HttpStatus.NOT_FOUND, "{}");
+
+        StepVerifier.create(storefrontService.getProduct(42L))
+                .expectErrorSatisfies(e -> Assertions.assertEquals(HttpStatus.NOT_FOUND, ((ResponseStatusException) e).getStatusCode()))
+                .verify();
+    }
+
+    @Test
+    void shouldAnswerBadGatewayWhenProductServiceIsUnreachable() {
+        productService = request -> Mono.error(new WebClientRequestException(
+                new IOException("Connection refused"), request.method(), request.url(), HttpHeaders.EMPTY));
+
+        StepVerifier.create(storefrontService.getProducts(new LinkedMultiValueMap<>()))
+                .expectErrorSatisfies(e -> Assertions.assertEquals(HttpStatus.BAD_GATEWAY, ((ResponseStatusException) e).getStatusCode()))
+                .verify();
+    }
+
+    @Test
+    void shouldAnswerGatewayTimeoutWhenProductServiceIsSlow() {
+        productService = request -> json(HttpStatus.OK, PRODUCTS).delayElement(Duration.ofSeconds(2));
+
+        StepVerifier.create(storefrontService.getProducts(new LinkedMultiValueMap<>()))
+                .expectErrorSatisfies(e -> Assertions.assertEquals(HttpStatus.GATEWAY_TIMEOUT, ((ResponseStatusException) e).getStatusCode()))
+                .verify();
+    }
+
+    private static Mono<ClientResponse> json(HttpStatus status, String body) {
+        return Mono.just(ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    private static ReactorLoadBalancerExchangeFilterFunction passThroughLoadBalancer() {
+        // Real default methods, so the WebClient builder can apply it as a filter
+        ReactorLoadBalancerExchangeFilterFunction loadBalancerFunction = Mockito.mock(ReactorLoadBalancerExchangeFilterFunction.class,
+                Mockito.withSettings().defaultAnswer(Mockito.CALLS_REAL_METHODS));
+        Mockito.doAnswer(invocation -> invocation.<ExchangeFunction>getArgument(1).exchange(invocation.getArgument(0)))
+                .when(loadBalancerFunction).filter(ArgumentMatchers.any(), ArgumentMatchers.any());
+        return loadBalancerFunction;
+    }
+}
@@ -0,0 +1,120 @@
+package me.fladoss.microservicesgamestore.inventory_service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.inventory_service.dto.SkuQuantity;
+import me.fladoss.microservicesgamestore.inventory_service.event.StockChangedEvent;
+import me.fladoss.microservicesgamestore.inventory_service.repository.InventoryRepository;
+import me.fladoss.microservicesgamestore.inventory_service.service.StockChangePublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// In-memory copy of the inventory table used to answer availability lookups without a query.
+// It is loaded on startup, kept current by the StockChangedEvents of committed transactions (local ones
+// directly, other replicas' through Kafka) and reloaded periodically as a safety net; until the first
+// load finishes lookups go to the database. Listeners see commits in no particular order, so a change only
+// replaces the quantity of a SKU when its row version is at least the one already applied.
+@Component
+@Slf4j
+public class InventoryStockIndex {
+
+    public static final int MISSING = SkuQuantityIndex.MISSING;
+
+    private final InventoryRepository inventoryRepository;
+
+    private final boolean enabled;
+
+    private volatile SkuQuantityIndex index;
+
+    // Newest changes committed while a reload is reading the table; guarded by this
+    private Map<String, StockChangedEvent> changedDuringReload;
+
+    public InventoryStockIndex(InventoryRepository inventoryRepository,
+                               @Value("${inventory.stock-index.enabled:false}") boolean enabled) {
+        this.inventoryRepository = inventoryRepository;
+        this.enabled = enabled;
+    }
+
+    public boolean isReady() {
+        return index != null;
+    }
+
+    // Returns MISSING for SKUs that have no inventory row
+    public int getQuantity(String skuCode) {
+        return index.get(skuCode);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${inventory.stock-index.refresh-interval:5m}")
+    public void reload() {
+        if (!enabled) {
+            return;
+        }
+
+        synchronized (this) {
+            changedDuringReload = new HashMap<>();
+        }
+
+        SkuQuantityIndex loaded;
+        try {
+            List<SkuQuantity> rows = inventoryRepository.findAllSkuQuantities();
+            loaded = new SkuQuantityIndex(rows.size());
+            rows.forEach(row -> loaded.put(row.getSkuCode(), quantityOf(row.getQuantity()), row.getVersion()));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                changedDuringReload = null;
+            }
+            log.error("Error loading the stock index", e);
+            return;
+        }
+
+        synchronized (this) {
+            // Changes committed after the snapshot was read win over the snapshot
+            changedDuringReload.values().forEach(change -> apply(loaded, change));
+            changedDuringReload = null;
+            index = loaded;
+        }
+
+        log.info("Stock index loaded with {} SKUs", loaded.size());
+    }
+
+    @TransactionalEventListener
+    public synchronized void onStockChanged(StockChangedEvent stockChangedEvent) {
+        if (index != null) {
+            apply(index, stockChangedEvent);
+        }
+        if (changedDuringReload != null) {
+            changedDuringReload.merge(stockChangedEvent.getSkuCode(), stockChangedEvent,
+                    (applied, change) -> versionOf(change) >= versionOf(applied) ? change : applied);
+        }
+    }
+
+    // Changes committed by the other inventory-service replicas arrive through the stock change topic
+    @KafkaListener(topics = StockChangePublisher.STOCK_CHANGED_TOPIC,
+            groupId = "${inventory.stock-index.group-id:inventory-service-stock-index}",
+            autoStartup = "${inventory.stock-index.enabled:false}")
+    public void onReplicaStockChanged(StockChangedEvent stockChangedEvent) {
+        onStockChanged(stockChangedEvent);
+    }
+
+    private static void apply(SkuQuantityIndex target, StockChangedEvent change) {
+        int quantity = change.getQuantity() != null ? change.getQuantity() : MISSING;
+        if (!target.put(change.getSkuCode(), quantity, versionOf(change))) {
+            log.debug("Ignored stock change of SKU {} older than the indexed one", change.getSkuCode());
+        }
+    }
+
+    // The column is nullable; lookups treat a missing quantity as no stock
+    private static int quantityOf(Integer quantity) {
+        return quantity != null ? quantity : 0;
+    }
+
+    private static long versionOf(StockChangedEvent change) {
+        return change.getVersion() != null ? change.getVersion() : 0;
+    }
+}
@@ -0,0 +1,142 @@
+package me.fladoss.microservicesgamestore.inventory_service.cache;
+
+import java.util.concurrent.locks.StampedLock;
+
+// Open-addressing (linear probing) map of SKU code to quantity backed by a String[], an int[] and a long[],
+// so an entry costs three array slots instead of a HashMap node and boxed values.
+// Every entry remembers the inventory row version it was written with and older versions are ignored, so
+// changes applied out of commit order cannot overwrite newer ones. A removed SKU stays as a MISSING entry
+// for the same reason.
+// Readers use optimistic StampedLock reads and only fall back to a read lock when a writer interferes.
+final class SkuQuantityIndex {
+
+    static final int MISSING = Integer.MIN_VALUE;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final StampedLock lock = new StampedLock();
+
+    private String[] keys;
+
+    private int[] values;
+
+    private long[] versions;
+
+    private int size;
+
+    SkuQuantityIndex(int expectedSize) {
+        int capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 16) / LOAD_FACTOR));
+        this.keys = new String[capacity];
+        this.values = new int[capacity];
+        this.versions = new long[capacity];
+    }
+
+    int get(String skuCode) {
+        long stamp = lock.tryOptimisticRead();
+        String[] currentKeys = keys;
+        int[] currentValues = values;
+        int quantity = currentKeys.length == currentValues.length ? find(currentKeys, currentValues, skuCode) : MISSING;
+
+        if (!lock.validate(stamp)) {
+            stamp = lock.readLock();
+            try {
+                quantity = find(keys, values, skuCode);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        return quantity;
+    }
+
+    // quantity MISSING removes the SKU; returns false when a newer version is already present
+    boolean put(String skuCode, int quantity, long version) {
+        long stamp = lock.writeLock();
+        try {
+            if (size + 1 > keys.length * LOAD_FACTOR) {
+                resize(keys.length * 2);
+            }
+
+            int mask = keys.length - 1;
+            int index = hash(skuCode) & mask;
+            while (keys[index] != null && !keys[index].equals(skuCode)) {
+                index = (index + 1) & mask;
+            }
+
+            if (keys[index] == null) {
+                keys[index] = skuCode;
+                size++;
+            } else if (versions[index] > version) {
+                return false;
+            }
+            values[index] = quantity;
+            versions[index] = version;
+            return true;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    // The probe is bounded by the table length, so a torn optimistic read can never loop forever
+    private static int find(String[] keys, int[] values, String skuCode) {
+        int mask = keys.length - 1;
+        int index = hash(skuCode) & mask;
+
+        for (int probes = 0; probes < keys.length; probes++) {
+            String key = keys[index];
+            if (key == null) {
+                return MISSING;
+            }
+            if (key.equals(skuCode)) {
+                return values[index];
+            }
+            index = (index + 1) & mask;
+        }
+
+        return MISSING;
+    }
+
+    private void resize(int capacity) {
+        String[] oldKeys = keys;
+        int[] oldValues = values;
+        long[] oldVersions = versions;
+        String[] newKeys = new String[capacity];
+        int[] newValues = new int[capacity];
+        long[] newVersions = new long[capacity];
+        int mask = capacity - 1;
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = hash(oldKeys[i]) & mask;
+                while (newKeys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                newKeys[index] = oldKeys[i];
+                newValues[index] = oldValues[i];
+                newVersions[index] = oldVersions[i];
+            }
+        }
+
+        keys = newKeys;
+        values = newValues;
+        versions = newVersions;
+    }
+
+    private static int hash(String skuCode) {
+        int hash = skuCode.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int tableSizeFor(int capacity) {
+        return Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+    }
+}
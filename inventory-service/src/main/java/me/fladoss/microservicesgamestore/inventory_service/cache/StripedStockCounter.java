@@ -0,0 +1,69 @@
+package me.fladoss.microservicesgamestore.inventory_service.cache;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Units of one SKU split across several CAS-updated cells, so concurrent buyers rarely touch the same
+// cache line. A take never drives a cell below zero; a cell that runs dry makes the caller move on to the next.
+public class StripedStockCounter {
+
+    // 16 longs = 128 bytes between cells, enough to keep neighbouring cells off the same cache line
+    private static final int PADDING = 16;
+
+    private final AtomicLongArray cells;
+
+    private final int stripes;
+
+    public StripedStockCounter(int stripes) {
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+    }
+
+    public boolean tryTake(int quantity) {
+        int start = ThreadLocalRandom.current().nextInt(stripes);
+
+        for (int i = 0; i < stripes; i++) {
+            int index = ((start + i) % stripes) * PADDING;
+
+            long available = cells.get(index);
+            while (available >= quantity) {
+                if (cells.compareAndSet(index, available, available - quantity)) {
+                    return true;
+                }
+                available = cells.get(index);
+            }
+        }
+
+        return false;
+    }
+
+    // Spreads units evenly over the cells
+    public void add(long quantity) {
+        long share = quantity / stripes;
+        long remainder = quantity % stripes;
+
+        for (int i = 0; i < stripes; i++) {
+            long amount = share + (i < remainder ? 1 : 0);
+            if (amount > 0) {
+                cells.addAndGet(i * PADDING, amount);
+            }
+        }
+    }
+
+    // Empties every cell and returns what they held
+    public long drain() {
+        long drained = 0;
+        for (int i = 0; i < stripes; i++) {
+            drained += cells.getAndSet(i * PADDING, 0);
+        }
+        return drained;
+    }
+
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+}
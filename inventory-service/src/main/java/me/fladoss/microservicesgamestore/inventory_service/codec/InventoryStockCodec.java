@@ -0,0 +1,63 @@
+package me.fladoss.microservicesgamestore.inventory_service.codec;
+
+import me.fladoss.microservicesgamestore.inventory_service.dto.InventoryResponse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary format of the internal stock lookup, shared with order-service's InventoryStockCodec.
+// Request:  version byte, int count, count x UTF sku code
+// Response: version byte, int count, count x (UTF sku code, boolean has quantity, int quantity if it has one)
+public final class InventoryStockCodec {
+
+    public static final String MEDIA_TYPE = "application/x-inventory-stock";
+
+    public static final int MAX_SKU_CODES = 10_000;
+
+    private static final byte VERSION = 1;
+
+    private InventoryStockCodec() {
+    }
+
+    public static List<String> readRequest(InputStream body) throws IOException {
+        DataInputStream input = new DataInputStream(body);
+
+        if (input.readByte() != VERSION) {
+            throw new IOException("Unsupported stock request version");
+        }
+
+        int count = input.readInt();
+        if (count < 0 || count > MAX_SKU_CODES) {
+            throw new IOException("Invalid number of SKU codes: " + count);
+        }
+
+        List<String> skuCodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            skuCodes.add(input.readUTF());
+        }
+        return skuCodes;
+    }
+
+    public static byte[] writeResponse(List<InventoryResponse> inventoryResponses) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(5 + inventoryResponses.size() * 40);
+        DataOutputStream output = new DataOutputStream(bytes);
+
+        output.writeByte(VERSION);
+        output.writeInt(inventoryResponses.size());
+        for (InventoryResponse inventoryResponse : inventoryResponses) {
+            output.writeUTF(inventoryResponse.getSkuCode());
+            output.writeBoolean(inventoryResponse.getQuantity() != null);
+            if (inventoryResponse.getQuantity() != null) {
+                output.writeInt(inventoryResponse.getQuantity());
+            }
+        }
+
+        output.flush();
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,21 @@
+package me.fladoss.microservicesgamestore.inventory_service.config;
+
+import me.fladoss.microservicesgamestore.inventory_service.service.StockChangePublisher;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // Compacted: a consumer reading from the beginning gets the latest stock of every SKU
+    @Bean
+    public NewTopic stockChangedTopic(@Value("${inventory.stock-events.partitions:3}") int partitions) {
+        return TopicBuilder.name(StockChangePublisher.STOCK_CHANGED_TOPIC)
+                .partitions(partitions)
+                .compact()
+                .build();
+    }
+}
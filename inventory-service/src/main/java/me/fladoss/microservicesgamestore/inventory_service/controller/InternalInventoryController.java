@@ -0,0 +1,30 @@
+package me.fladoss.microservicesgamestore.inventory_service.controller;
+
+import lombok.RequiredArgsConstructor;
+import me.fladoss.microservicesgamestore.inventory_service.codec.InventoryStockCodec;
+import me.fladoss.microservicesgamestore.inventory_service.service.InventoryService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+// Service-to-service stock lookup in the compact binary format of InventoryStockCodec
+@RestController
+@RequestMapping("/api/inventory/internal")
+@RequiredArgsConstructor
+public class InternalInventoryController {
+
+    private final InventoryService inventoryService;
+
+    @PostMapping(value = "/stock", consumes = InventoryStockCodec.MEDIA_TYPE, produces = InventoryStockCodec.MEDIA_TYPE)
+    @ResponseStatus(HttpStatus.OK)
+    public byte[] getStock(InputStream body) {
+        try {
+            return InventoryStockCodec.writeResponse(inventoryService.isInStock(InventoryStockCodec.readRequest(body)));
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed stock request", e);
+        }
+    }
+}
@@ -1,21 +1,40 @@
 package me.fladoss.microservicesgamestore.inventory_service.controller;
 
 import lombok.RequiredArgsConstructor;
+import me.fladoss.microservicesgamestore.inventory_service.dto.BulkImportResponse;
 import me.fladoss.microservicesgamestore.inventory_service.dto.InventoryRequest;
 import me.fladoss.microservicesgamestore.inventory_service.dto.InventoryResponse;
+import me.fladoss.microservicesgamestore.inventory_service.dto.ReservationRequest;
+import me.fladoss.microservicesgamestore.inventory_service.dto.ReservationResponse;
+import me.fladoss.microservicesgamestore.inventory_service.service.FlashSaleService;
+import me.fladoss.microservicesgamestore.inventory_service.service.InventoryBulkImportService;
+import me.fladoss.microservicesgamestore.inventory_service.service.InventoryReservationService;
 import me.fladoss.microservicesgamestore.inventory_service.service.InventoryService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/inventory")
 @RequiredArgsConstructor
 public class InventoryController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
     private final InventoryService inventoryService;
 
+    private final InventoryReservationService inventoryReservationService;
+
+    private final InventoryBulkImportService inventoryBulkImportService;
+
+    private final FlashSaleService flashSaleService;
+
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
     public List<InventoryResponse> isInStock(@RequestParam List<String> skuCode) {
@@ -40,4 +59,44 @@ public class InventoryController {
     public void deleteInventory(Long id) {
         inventoryService.deleteInventory(id);
     }
+
+    // Streamed CSV (skuCode,quantity) or NDJSON ({"skuCode", "quantity"}) rows, upserted by SKU in batches
+    @PostMapping(value = "/bulk", consumes = {"text/csv", "application/x-ndjson"})
+    @ResponseStatus(HttpStatus.OK)
+    public BulkImportResponse bulkImport(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                         InputStream body) {
+        InventoryBulkImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(TEXT_CSV)
+                ? InventoryBulkImportService.Format.CSV
+                : InventoryBulkImportService.Format.NDJSON;
+
+        return inventoryBulkImportService.importStock(body, format);
+    }
+
+    @PostMapping("/reservation")
+    @ResponseStatus(HttpStatus.CREATED)
+    public ReservationResponse reserve(@RequestBody ReservationRequest reservationRequest) {
+        return inventoryReservationService.reserve(reservationRequest);
+    }
+
+    @PostMapping("/reservation/{reservationId}/confirm")
+    @ResponseStatus(HttpStatus.OK)
+    public void confirmReservation(@PathVariable String reservationId) {
+        inventoryReservationService.confirmReservation(reservationId);
+    }
+
+    @PostMapping("/reservation/{reservationId}/release")
+    @ResponseStatus(HttpStatus.OK)
+    public void releaseReservation(@PathVariable String reservationId) {
+        inventoryReservationService.releaseReservation(reservationId);
+    }
+
+    // 200 once the sale is persisted, 409 when the SKU is sold out
+    @PostMapping("/flash-sale/{skuCode}/purchase")
+    public CompletableFuture<ResponseEntity<Void>> purchaseFlashSale(@PathVariable String skuCode,
+                                                                     @RequestParam(defaultValue = "1") int quantity) {
+        return flashSaleService.purchase(skuCode, quantity)
+                .thenApply(purchased -> purchased
+                        ? ResponseEntity.ok().<Void>build()
+                        : ResponseEntity.status(HttpStatus.CONFLICT).<Void>build());
+    }
 }
@@ -0,0 +1,18 @@
+package me.fladoss.microservicesgamestore.inventory_service.dto;
+
+import lombok.*;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkImportBatchResult {
+    private int batch;
+    private int rows;
+    private int inserted;
+    private int updated;
+    // Rows whose SKU already had the imported quantity; nothing is written for them
+    private int unchanged;
+    private int rejected;
+    private long durationMs;
+}
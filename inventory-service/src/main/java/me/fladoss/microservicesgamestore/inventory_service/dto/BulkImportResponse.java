@@ -0,0 +1,18 @@
+package me.fladoss.microservicesgamestore.inventory_service.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class BulkImportResponse {
+    private long rows;
+    private long inserted;
+    private long updated;
+    private long unchanged;
+    private long rejected;
+    private List<BulkImportBatchResult> batches;
+}
@@ -9,4 +9,5 @@ import lombok.*;
 public class InventoryResponse {
     private String skuCode;
     private boolean isInStock;
+    private Integer quantity;
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package me.fladoss.microservicesgamestore.inventory_service.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationRequest {
+    private List<InventoryRequest> items;
+}
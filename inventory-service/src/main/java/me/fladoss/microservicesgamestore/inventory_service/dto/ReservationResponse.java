@@ -0,0 +1,14 @@
+package me.fladoss.microservicesgamestore.inventory_service.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationResponse {
+    private String reservationId;
+    private List<InventoryRequest> items;
+}
@@ -0,0 +1,10 @@
+package me.fladoss.microservicesgamestore.inventory_service.dto;
+
+public interface SkuQuantity {
+    String getSkuCode();
+
+    Integer getQuantity();
+
+    // Row version after the statement, from inventory_version_seq
+    Long getVersion();
+}
@@ -0,0 +1,6 @@
+package me.fladoss.microservicesgamestore.inventory_service.dto;
+
+public interface SkuQuantityChange extends SkuQuantity {
+    // Signed change of the quantity made by the statement
+    Integer getDelta();
+}
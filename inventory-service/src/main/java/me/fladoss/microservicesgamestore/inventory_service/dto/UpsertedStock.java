@@ -0,0 +1,6 @@
+package me.fladoss.microservicesgamestore.inventory_service.dto;
+
+public interface UpsertedStock extends SkuQuantityChange {
+    // true when the row was inserted, false when an existing SKU was updated
+    Boolean getInserted();
+}
@@ -0,0 +1,25 @@
+package me.fladoss.microservicesgamestore.inventory_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Units of a flash-sale SKU moved out of inventory into the memory of one service instance
+// and not sold yet; returned to inventory on shutdown or when the instance stops updating the row
+@Entity
+@Table(name = "flash_sale_allocations")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FlashSaleAllocation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    private String instanceId;
+    private String skuCode;
+    private Integer held;
+    private Instant updatedAt;
+}
@@ -16,4 +16,6 @@ public class Inventory {
     private Long id;
     private String skuCode;
     private Integer quantity;
+    // Taken from inventory_version_seq on every write, after the row is locked
+    private Long version;
 }
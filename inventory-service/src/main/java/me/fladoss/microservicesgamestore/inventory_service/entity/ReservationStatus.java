@@ -0,0 +1,7 @@
+package me.fladoss.microservicesgamestore.inventory_service.entity;
+
+public enum ReservationStatus {
+    RESERVED,
+    CONFIRMED,
+    RELEASED
+}
@@ -0,0 +1,18 @@
+package me.fladoss.microservicesgamestore.inventory_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// quantity is the committed stock of the SKU, or null when the SKU no longer exists;
+// delta is the signed change since the previous event for the SKU; version is the inventory row version
+// written by the change (inventory_version_seq), which orders the changes of a SKU by commit
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class StockChangedEvent {
+    private String skuCode;
+    private Integer quantity;
+    private Integer delta;
+    private Long version;
+}
@@ -0,0 +1,92 @@
+package me.fladoss.microservicesgamestore.inventory_service.repository;
+
+import me.fladoss.microservicesgamestore.inventory_service.dto.SkuQuantityChange;
+import me.fladoss.microservicesgamestore.inventory_service.entity.FlashSaleAllocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface FlashSaleAllocationRepository extends JpaRepository<FlashSaleAllocation, Long> {
+
+    // Moves up to chunkSize units from inventory to the instance's allocation; inventory never goes below zero
+    @Query(value = """
+            WITH locked AS (
+                SELECT id, LEAST(quantity, :chunkSize) AS amount
+                FROM inventory
+                WHERE sku_code = :skuCode
+                  AND quantity > 0
+                FOR UPDATE
+            ), claimed AS (
+                UPDATE inventory i
+                SET quantity = i.quantity - l.amount, version = nextval('inventory_version_seq')
+                FROM locked l
+                WHERE i.id = l.id
+                RETURNING i.sku_code, i.quantity, i.version, l.amount
+            ), allocated AS (
+                INSERT INTO flash_sale_allocations (instance_id, sku_code, held, updated_at)
+                SELECT :instanceId, c.sku_code, c.amount, now()
+                FROM claimed c
+                ON CONFLICT (instance_id, sku_code)
+                DO UPDATE SET held = flash_sale_allocations.held + EXCLUDED.held, updated_at = EXCLUDED.updated_at
+            )
+            SELECT c.sku_code AS "skuCode", c.quantity AS "quantity", -c.amount AS "delta", c.version AS "version"
+            FROM claimed c
+            """, nativeQuery = true)
+    List<SkuQuantityChange> claimStock(@Param("instanceId") String instanceId,
+                                       @Param("skuCode") String skuCode,
+                                       @Param("chunkSize") int chunkSize);
+
+    // Sold units leave the allocation for good
+    @Modifying
+    @Query(value = """
+            UPDATE flash_sale_allocations
+            SET held = held - :sold, updated_at = now()
+            WHERE instance_id = :instanceId
+              AND sku_code = :skuCode
+              AND held >= :sold
+            """, nativeQuery = true)
+    int confirmSold(@Param("instanceId") String instanceId, @Param("skuCode") String skuCode, @Param("sold") int sold);
+
+    @Modifying
+    @Query(value = "UPDATE flash_sale_allocations SET updated_at = now() WHERE instance_id = :instanceId", nativeQuery = true)
+    int heartbeat(@Param("instanceId") String instanceId);
+
+    @Query(value = """
+            WITH returned AS (
+                DELETE FROM flash_sale_allocations
+                WHERE instance_id = :instanceId
+                RETURNING sku_code, held
+            )
+            UPDATE inventory i
+            SET quantity = i.quantity + r.held, version = nextval('inventory_version_seq')
+            FROM returned r
+            WHERE i.sku_code = r.sku_code
+            RETURNING i.sku_code AS "skuCode", i.quantity AS "quantity", r.held AS "delta", i.version AS "version"
+            """, nativeQuery = true)
+    List<SkuQuantityChange> returnHeldStock(@Param("instanceId") String instanceId);
+
+    // Allocations of instances that stopped updating them (crashed) go back to inventory
+    @Query(value = """
+            WITH returned AS (
+                DELETE FROM flash_sale_allocations
+                WHERE updated_at < :staleBefore
+                RETURNING sku_code, held
+            ), returned_totals AS (
+                SELECT sku_code, SUM(held) AS held
+                FROM returned
+                GROUP BY sku_code
+            )
+            UPDATE inventory i
+            SET quantity = i.quantity + r.held, version = nextval('inventory_version_seq')
+            FROM returned_totals r
+            WHERE i.sku_code = r.sku_code
+            RETURNING i.sku_code AS "skuCode", i.quantity AS "quantity", CAST(r.held AS integer) AS "delta", i.version AS "version"
+            """, nativeQuery = true)
+    List<SkuQuantityChange> returnStaleHeldStock(@Param("staleBefore") Instant staleBefore);
+}
@@ -1,12 +1,113 @@
 package me.fladoss.microservicesgamestore.inventory_service.repository;
 
+import jakarta.persistence.LockModeType;
+import me.fladoss.microservicesgamestore.inventory_service.dto.SkuQuantity;
+import me.fladoss.microservicesgamestore.inventory_service.dto.SkuQuantityChange;
+import me.fladoss.microservicesgamestore.inventory_service.dto.UpsertedStock;
 import me.fladoss.microservicesgamestore.inventory_service.entity.Inventory;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
+    // Read-only so that it is served by the read replica when one is configured
+    @Transactional(readOnly = true)
     List<Inventory> findBySkuCodeIn(List<String> skuCodes);
-}
\ No newline at end of file
+
+    // Locks the row, so a version taken afterwards is newer than the row's current one
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.id = :id")
+    Optional<Inventory> findByIdForUpdate(@Param("id") Long id);
+
+    @Query(value = "SELECT sku_code AS \"skuCode\", quantity AS \"quantity\", version AS \"version\" FROM inventory", nativeQuery = true)
+    List<SkuQuantity> findAllSkuQuantities();
+
+    @Query(value = "SELECT nextval('inventory_version_seq')", nativeQuery = true)
+    long nextVersion();
+
+    // Row locks in SKU order: multi-SKU updates lock in plan order, so concurrent ones take their locks here first
+    // and cannot deadlock on each other
+    @Query(value = "SELECT sku_code FROM inventory WHERE sku_code IN (:skuCodes) ORDER BY sku_code FOR UPDATE", nativeQuery = true)
+    List<String> lockStock(@Param("skuCodes") Collection<String> skuCodes);
+
+    // items is a JSON array of {"skuCode", "quantity"}; only rows with enough stock are decremented and returned
+    @Query(value = """
+            UPDATE inventory i
+            SET quantity = i.quantity - r.quantity, version = nextval('inventory_version_seq')
+            FROM jsonb_to_recordset(CAST(:items AS jsonb)) AS r("skuCode" varchar, quantity integer)
+            WHERE i.sku_code = r."skuCode"
+              AND i.quantity >= r.quantity
+            RETURNING i.sku_code AS "skuCode", i.quantity AS "quantity", -r.quantity AS "delta", i.version AS "version"
+            """, nativeQuery = true)
+    List<SkuQuantityChange> reserveStock(@Param("items") String items);
+
+    // items is a JSON array of {"skuCode", "quantity"} with unique SKUs; xmax = 0 only for freshly inserted rows.
+    // Rows that already hold the imported quantity are left alone and not returned.
+    // The previous quantities come from the statement snapshot, taken before the upsert
+    @Query(value = """
+            WITH r AS (
+                SELECT * FROM jsonb_to_recordset(CAST(:items AS jsonb)) AS r("skuCode" varchar, quantity integer)
+            ), previous AS (
+                SELECT i.sku_code, i.quantity
+                FROM inventory i
+                JOIN r ON i.sku_code = r."skuCode"
+            ), upserted AS (
+                INSERT INTO inventory (sku_code, quantity)
+                SELECT r."skuCode", r.quantity
+                FROM r
+                ON CONFLICT (sku_code) DO UPDATE SET quantity = EXCLUDED.quantity, version = nextval('inventory_version_seq')
+                WHERE inventory.quantity IS DISTINCT FROM EXCLUDED.quantity
+                RETURNING sku_code, quantity, version, (xmax = 0) AS inserted
+            )
+            SELECT u.sku_code AS "skuCode", u.quantity AS "quantity", u.version AS "version", u.inserted AS "inserted",
+                   u.quantity - COALESCE(p.quantity, 0) AS "delta"
+            FROM upserted u
+            LEFT JOIN previous p ON p.sku_code = u.sku_code
+            """, nativeQuery = true)
+    List<UpsertedStock> upsertStock(@Param("items") String items);
+
+    @Query(value = """
+            WITH released AS (
+                UPDATE inventory_reservations
+                SET status = 'RELEASED'
+                WHERE reservation_id = :reservationId
+                  AND status = 'RESERVED'
+                RETURNING sku_code, quantity
+            )
+            UPDATE inventory i
+            SET quantity = i.quantity + r.quantity, version = nextval('inventory_version_seq')
+            FROM released r
+            WHERE i.sku_code = r.sku_code
+            RETURNING i.sku_code AS "skuCode", i.quantity AS "quantity", r.quantity AS "delta", i.version AS "version"
+            """, nativeQuery = true)
+    List<SkuQuantityChange> releaseStock(@Param("reservationId") String reservationId);
+
+    @Query(value = """
+            WITH released AS (
+                UPDATE inventory_reservations
+                SET status = 'RELEASED'
+                WHERE status = 'RESERVED'
+                  AND created_at < :createdBefore
+                RETURNING sku_code, quantity
+            ), released_totals AS (
+                SELECT sku_code, SUM(quantity) AS quantity
+                FROM released
+                GROUP BY sku_code
+            )
+            UPDATE inventory i
+            SET quantity = i.quantity + r.quantity, version = nextval('inventory_version_seq')
+            FROM released_totals r
+            WHERE i.sku_code = r.sku_code
+            RETURNING i.sku_code AS "skuCode", i.quantity AS "quantity", CAST(r.quantity AS integer) AS "delta", i.version AS "version"
+            """, nativeQuery = true)
+    List<SkuQuantityChange> releaseExpiredStock(@Param("createdBefore") Instant createdBefore);
+}
@@ -0,0 +1,41 @@
+package me.fladoss.microservicesgamestore.inventory_service.repository;
+
+import me.fladoss.microservicesgamestore.inventory_service.entity.InventoryReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO inventory_reservations (reservation_id, sku_code, quantity, status, created_at)
+            SELECT :reservationId, r."skuCode", r.quantity, 'RESERVED', now()
+            FROM jsonb_to_recordset(CAST(:items AS jsonb)) AS r("skuCode" varchar, quantity integer)
+            """, nativeQuery = true)
+    int insertReservation(@Param("reservationId") String reservationId, @Param("items") String items);
+
+    @Query(value = "SELECT DISTINCT sku_code FROM inventory_reservations WHERE reservation_id = :reservationId AND status = 'RESERVED'",
+            nativeQuery = true)
+    List<String> findReservedSkuCodes(@Param("reservationId") String reservationId);
+
+    @Query(value = "SELECT DISTINCT sku_code FROM inventory_reservations WHERE status = 'RESERVED' AND created_at < :createdBefore",
+            nativeQuery = true)
+    List<String> findExpiredSkuCodes(@Param("createdBefore") Instant createdBefore);
+
+    // Confirming a confirmed reservation again succeeds, so callers can retry
+    @Modifying
+    @Query(value = """
+            UPDATE inventory_reservations
+            SET status = 'CONFIRMED'
+            WHERE reservation_id = :reservationId
+              AND status IN ('RESERVED', 'CONFIRMED')
+            """, nativeQuery = true)
+    int confirmReservation(@Param("reservationId") String reservationId);
+}
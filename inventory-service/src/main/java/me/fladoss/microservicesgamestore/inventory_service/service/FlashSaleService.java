@@ -0,0 +1,287 @@
+package me.fladoss.microservicesgamestore.inventory_service.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.inventory_service.cache.StripedStockCounter;
+import me.fladoss.microservicesgamestore.inventory_service.dto.SkuQuantityChange;
+import me.fladoss.microservicesgamestore.inventory_service.event.StockChangedEvent;
+import me.fladoss.microservicesgamestore.inventory_service.repository.FlashSaleAllocationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Flash-sale mode for the SKUs listed in inventory.flash-sale.skus.
+// Stock is claimed from the inventory row in chunks (the guarded UPDATE never goes below zero) and recorded
+// in flash_sale_allocations, then sold from striped in-memory counters without touching the row.
+// Sales are confirmed in groups: every flush interval one transaction per SKU subtracts the units sold from the
+// allocation, and only then are the buyers answered. After a crash the allocation holds exactly the units
+// that were claimed but not confirmed, and another instance returns them to inventory once the row goes stale.
+@Service
+@Slf4j
+public class FlashSaleService {
+
+    private final FlashSaleAllocationRepository flashSaleAllocationRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final Map<String, StripedStockCounter> counters = new HashMap<>();
+
+    // One refill at a time per SKU; the lock is held across the refill's database round trip
+    private final Map<String, ReentrantLock> refillLocks = new HashMap<>();
+
+    private final ConcurrentLinkedQueue<PendingSale> pendingSales = new ConcurrentLinkedQueue<>();
+
+    private final int chunkSize;
+
+    private final Duration staleAfter;
+
+    private volatile boolean closed;
+
+    public FlashSaleService(FlashSaleAllocationRepository flashSaleAllocationRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${inventory.flash-sale.skus:}") List<String> skuCodes,
+                            @Value("${inventory.flash-sale.stripes:0}") int stripes,
+                            @Value("${inventory.flash-sale.chunk-size:100}") int chunkSize,
+                            @Value("${inventory.flash-sale.stale-after:30s}") Duration staleAfter) {
+        this.flashSaleAllocationRepository = flashSaleAllocationRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.staleAfter = staleAfter;
+
+        int stripeCount = stripes > 0 ? stripes : Runtime.getRuntime().availableProcessors();
+        skuCodes.stream()
+                .map(String::trim)
+                .filter(skuCode -> !skuCode.isEmpty())
+                .forEach(skuCode -> {
+                    counters.put(skuCode, new StripedStockCounter(stripeCount));
+                    refillLocks.put(skuCode, new ReentrantLock());
+                });
+
+        if (!counters.isEmpty()) {
+            log.info("Flash-sale mode enabled for {} as instance {}", counters.keySet(), instanceId);
+        }
+    }
+
+    public boolean isFlashSale(String skuCode) {
+        return counters.containsKey(skuCode);
+    }
+
+    // Units claimed by this instance and not sold yet
+    public long getLocalAvailable(String skuCode) {
+        StripedStockCounter counter = counters.get(skuCode);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    // Completes with true once the sale is persisted, with false if the SKU is sold out
+    public CompletableFuture<Boolean> purchase(String skuCode, int quantity) {
+        StripedStockCounter counter = counters.get(skuCode);
+
+        if (counter == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "SKU " + skuCode + " is not in a flash sale");
+        }
+        if (quantity <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be positive");
+        }
+        if (closed) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Flash sale is shutting down");
+        }
+
+        if (!counter.tryTake(quantity) && !refillAndTake(skuCode, counter, quantity)) {
+            return CompletableFuture.completedFuture(false);
+        }
+
+        PendingSale pendingSale = new PendingSale(skuCode, quantity, new CompletableFuture<>());
+        pendingSales.add(pendingSale);
+
+        // shutdown() sets closed before its final flush drains the queue. A sale added after that drain sees
+        // closed here and withdraws itself; if the drain took it first, remove() fails and the flush answers it.
+        if (closed && pendingSales.remove(pendingSale)) {
+            counter.add(quantity);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Flash sale is shutting down");
+        }
+        return pendingSale.confirmed();
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flash-sale.flush-interval:100ms}")
+    public void flush() {
+        if (counters.isEmpty()) {
+            return;
+        }
+
+        Map<String, List<PendingSale>> salesBySkuCode = new HashMap<>();
+        PendingSale pendingSale;
+        while ((pendingSale = pendingSales.poll()) != null) {
+            salesBySkuCode.computeIfAbsent(pendingSale.skuCode(), skuCode -> new ArrayList<>()).add(pendingSale);
+        }
+
+        try {
+            // Keeps the allocation rows from being recovered as stale while this instance is alive
+            transactionTemplate.executeWithoutResult(status -> flashSaleAllocationRepository.heartbeat(instanceId));
+        } catch (RuntimeException e) {
+            log.error("Error refreshing flash-sale allocations of instance {}", instanceId, e);
+        }
+
+        // Each SKU is confirmed on its own, so a failing SKU does not fail the sales of the others
+        salesBySkuCode.forEach(this::confirm);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flash-sale.stale-after:30s}")
+    public void returnStaleAllocations() {
+        if (counters.isEmpty()) {
+            return;
+        }
+
+        List<SkuQuantityChange> returned = transactionTemplate.execute(status -> publishStockChanges(
+                flashSaleAllocationRepository.returnStaleHeldStock(Instant.now().minus(staleAfter))));
+
+        if (returned != null && !returned.isEmpty()) {
+            log.warn("Returned stale flash-sale allocations of {} SKUs to inventory", returned.size());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (counters.isEmpty()) {
+            return;
+        }
+
+        closed = true;
+        flush();
+
+        transactionTemplate.executeWithoutResult(status -> publishStockChanges(
+                flashSaleAllocationRepository.returnHeldStock(instanceId)));
+        counters.values().forEach(StripedStockCounter::drain);
+
+        log.info("Returned unsold flash-sale stock of instance {} to inventory", instanceId);
+    }
+
+    private void confirm(String skuCode, List<PendingSale> sales) {
+        StripedStockCounter counter = counters.get(skuCode);
+        int sold = sales.stream().mapToInt(PendingSale::quantity).sum();
+
+        try {
+            Integer confirmed = transactionTemplate.execute(status -> flashSaleAllocationRepository.confirmSold(instanceId, skuCode, sold));
+            if (confirmed != null && confirmed > 0) {
+                sales.forEach(sale -> sale.confirmed().complete(true));
+                return;
+            }
+        } catch (RuntimeException e) {
+            log.error("Error confirming {} flash-sale purchases of {}", sales.size(), skuCode, e);
+            counter.add(sold);
+            sales.forEach(sale -> sale.confirmed().completeExceptionally(e));
+            return;
+        }
+
+        // The allocation no longer covers the sales: it went stale (e.g. after a long pause) and was returned to
+        // inventory. The units left in the counter are not this instance's anymore, so they are dropped and the
+        // sales are claimed again from inventory; those that no longer fit are answered as sold out.
+        log.warn("Flash-sale allocation of {} was lost, claiming {} sold units again", skuCode, sold);
+        ReentrantLock refillLock = refillLocks.get(skuCode);
+        refillLock.lock();
+        int reclaimed = 0;
+        try {
+            counter.drain();
+            long available = claimUpTo(skuCode, sold);
+
+            List<PendingSale> accepted = new ArrayList<>();
+            for (PendingSale sale : sales) {
+                if (reclaimed + sale.quantity() <= available) {
+                    reclaimed += sale.quantity();
+                    accepted.add(sale);
+                } else {
+                    sale.confirmed().complete(false);
+                }
+            }
+            counter.add(available - reclaimed);
+
+            int toConfirm = reclaimed;
+            if (toConfirm > 0) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    if (flashSaleAllocationRepository.confirmSold(instanceId, skuCode, toConfirm) == 0) {
+                        throw new IllegalStateException("Allocation of " + skuCode + " does not cover " + toConfirm + " reclaimed units");
+                    }
+                });
+            }
+            accepted.forEach(sale -> sale.confirmed().complete(true));
+        } catch (RuntimeException e) {
+            log.error("Error claiming lost flash-sale allocation of {}", skuCode, e);
+            // Units claimed for the failed sales are still held by the allocation
+            counter.add(reclaimed);
+            sales.stream()
+                    .filter(sale -> !sale.confirmed().isDone())
+                    .forEach(sale -> sale.confirmed().completeExceptionally(e));
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    // Slow path, one thread per SKU: pools the units left in all cells and claims more from the database
+    private boolean refillAndTake(String skuCode, StripedStockCounter counter, int quantity) {
+        ReentrantLock refillLock = refillLocks.get(skuCode);
+        refillLock.lock();
+        try {
+            if (counter.tryTake(quantity)) {
+                return true;
+            }
+
+            long available = counter.drain();
+            available += claimUpTo(skuCode, quantity - available);
+
+            boolean taken = available >= quantity;
+            counter.add(taken ? available - quantity : available);
+            return taken;
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    // Claims chunks until at least needed units were claimed or inventory runs dry; returns the units claimed
+    private long claimUpTo(String skuCode, long needed) {
+        long claimedTotal = 0;
+        while (claimedTotal < needed) {
+            int claimed = claim(skuCode, (int) Math.max(chunkSize, needed - claimedTotal));
+            if (claimed == 0) {
+                break;
+            }
+            claimedTotal += claimed;
+        }
+        return claimedTotal;
+    }
+
+    private int claim(String skuCode, int amount) {
+        List<SkuQuantityChange> claimed = transactionTemplate.execute(status -> publishStockChanges(
+                flashSaleAllocationRepository.claimStock(instanceId, skuCode, amount)));
+
+        return claimed == null || claimed.isEmpty() ? 0 : -claimed.get(0).getDelta();
+    }
+
+    private List<SkuQuantityChange> publishStockChanges(List<SkuQuantityChange> changes) {
+        changes.forEach(change ->
+                eventPublisher.publishEvent(new StockChangedEvent(change.getSkuCode(), change.getQuantity(), change.getDelta(), change.getVersion())));
+        return changes;
+    }
+
+    private record PendingSale(String skuCode, int quantity, CompletableFuture<Boolean> confirmed) {
+    }
+}
@@ -0,0 +1,196 @@
+package me.fladoss.microservicesgamestore.inventory_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.inventory_service.dto.BulkImportBatchResult;
+import me.fladoss.microservicesgamestore.inventory_service.dto.BulkImportResponse;
+import me.fladoss.microservicesgamestore.inventory_service.dto.InventoryRequest;
+import me.fladoss.microservicesgamestore.inventory_service.dto.UpsertedStock;
+import me.fladoss.microservicesgamestore.inventory_service.event.StockChangedEvent;
+import me.fladoss.microservicesgamestore.inventory_service.repository.InventoryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Reads SKU/quantity rows from a streamed CSV or NDJSON body and upserts them batch by batch.
+// Only the current batch is held in memory and every batch is its own transaction, so a failed
+// batch does not undo the ones already imported.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryBulkImportService {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private static final int MAX_SKU_CODE_LENGTH = 30;
+
+    private static final String[] CSV_HEADER = {"skuCode", "quantity"};
+
+    private final InventoryRepository inventoryRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${inventory.bulk-import.batch-size:1000}")
+    private int batchSize;
+
+    public BulkImportResponse importStock(InputStream body, Format format) {
+        List<BulkImportBatchResult> batchResults = new ArrayList<>();
+        // Last row wins for a SKU repeated inside one batch; ON CONFLICT cannot touch a row twice.
+        // Sorted by SKU, so the upsert locks rows in the same order as reservations do
+        Map<String, Integer> batch = new TreeMap<>();
+        int rejected = 0;
+        long lineNumber = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                if (format == Format.CSV && lineNumber == 1 && isCsvHeader(line)) {
+                    continue;
+                }
+
+                InventoryRequest row = format == Format.CSV ? parseCsv(line) : parseNdjson(line);
+                if (row == null) {
+                    rejected++;
+                    continue;
+                }
+
+                batch.put(row.getSkuCode(), row.getQuantity());
+                if (batch.size() >= batchSize) {
+                    batchResults.add(upsertBatch(batchResults.size() + 1, batch, rejected));
+                    batch = new TreeMap<>();
+                    rejected = 0;
+                }
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Error reading bulk import body after line " + lineNumber, e);
+        }
+
+        if (!batch.isEmpty() || rejected > 0) {
+            batchResults.add(upsertBatch(batchResults.size() + 1, batch, rejected));
+        }
+
+        BulkImportResponse response = BulkImportResponse.builder()
+                .rows(batchResults.stream().mapToLong(BulkImportBatchResult::getRows).sum())
+                .inserted(batchResults.stream().mapToLong(BulkImportBatchResult::getInserted).sum())
+                .updated(batchResults.stream().mapToLong(BulkImportBatchResult::getUpdated).sum())
+                .unchanged(batchResults.stream().mapToLong(BulkImportBatchResult::getUnchanged).sum())
+                .rejected(batchResults.stream().mapToLong(BulkImportBatchResult::getRejected).sum())
+                .batches(batchResults)
+                .build();
+
+        log.info("Bulk import finished: {} rows in {} batches, {} inserted, {} updated, {} unchanged, {} rejected",
+                response.getRows(), batchResults.size(), response.getInserted(), response.getUpdated(), response.getUnchanged(),
+                response.getRejected());
+
+        return response;
+    }
+
+    private BulkImportBatchResult upsertBatch(int batchNumber, Map<String, Integer> batch, int rejected) {
+        long start = System.nanoTime();
+
+        List<UpsertedStock> upserted = batch.isEmpty()
+                ? List.of()
+                : transactionTemplate.execute(status -> {
+                    List<UpsertedStock> rows = inventoryRepository.upsertStock(toJson(batch));
+                    rows.forEach(row -> eventPublisher.publishEvent(new StockChangedEvent(row.getSkuCode(), row.getQuantity(), row.getDelta(), row.getVersion())));
+                    return rows;
+                });
+
+        int inserted = (int) upserted.stream().filter(row -> Boolean.TRUE.equals(row.getInserted())).count();
+
+        return BulkImportBatchResult.builder()
+                .batch(batchNumber)
+                .rows(upserted.size())
+                .inserted(inserted)
+                .updated(upserted.size() - inserted)
+                .unchanged(batch.size() - upserted.size())
+                .rejected(rejected)
+                .durationMs((System.nanoTime() - start) / 1_000_000)
+                .build();
+    }
+
+    // Only the expected header (after an optional byte order mark) is skipped; any other unparsable first line
+    // is a rejected row
+    private boolean isCsvHeader(String line) {
+        String[] columns = line.replace("\uFEFF", "").split(",", -1);
+        return columns.length == CSV_HEADER.length
+                && unquote(columns[0]).equalsIgnoreCase(CSV_HEADER[0])
+                && unquote(columns[1]).equalsIgnoreCase(CSV_HEADER[1]);
+    }
+
+    // skuCode,quantity
+    private InventoryRequest parseCsv(String line) {
+        String[] columns = line.split(",", -1);
+        if (columns.length != 2) {
+            return null;
+        }
+
+        try {
+            return validate(new InventoryRequest(unquote(columns[0]), Integer.parseInt(unquote(columns[1]))));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private InventoryRequest parseNdjson(String line) {
+        try {
+            return validate(objectMapper.readValue(line, InventoryRequest.class));
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private InventoryRequest validate(InventoryRequest row) {
+        if (row.getSkuCode() == null || row.getSkuCode().isBlank() || row.getSkuCode().length() > MAX_SKU_CODE_LENGTH
+                || row.getQuantity() == null || row.getQuantity() < 0) {
+            return null;
+        }
+        return row;
+    }
+
+    private String unquote(String column) {
+        String value = column.trim();
+        if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1).trim();
+        }
+        return value;
+    }
+
+    private String toJson(Map<String, Integer> batch) {
+        List<InventoryRequest> items = new ArrayList<>(batch.size());
+        batch.forEach((skuCode, quantity) -> items.add(new InventoryRequest(skuCode, quantity)));
+
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize bulk import batch", e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package me.fladoss.microservicesgamestore.inventory_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.inventory_service.dto.InventoryRequest;
+import me.fladoss.microservicesgamestore.inventory_service.dto.ReservationRequest;
+import me.fladoss.microservicesgamestore.inventory_service.dto.ReservationResponse;
+import me.fladoss.microservicesgamestore.inventory_service.dto.SkuQuantity;
+import me.fladoss.microservicesgamestore.inventory_service.dto.SkuQuantityChange;
+import me.fladoss.microservicesgamestore.inventory_service.event.StockChangedEvent;
+import me.fladoss.microservicesgamestore.inventory_service.repository.InventoryRepository;
+import me.fladoss.microservicesgamestore.inventory_service.repository.InventoryReservationRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryReservationService {
+
+    private final InventoryRepository inventoryRepository;
+
+    private final InventoryReservationRepository inventoryReservationRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${inventory.reservation.ttl:15m}")
+    private Duration reservationTtl;
+
+    // All SKUs are decremented by a single guarded UPDATE; if any of them lacks stock the transaction rolls back
+    @Transactional
+    public ReservationResponse reserve(ReservationRequest reservationRequest) {
+        List<InventoryRequest> items = mergeItems(reservationRequest);
+        String itemsJson = toJson(items);
+
+        lockStock(items.stream().map(InventoryRequest::getSkuCode).toList());
+        List<SkuQuantityChange> reserved = inventoryRepository.reserveStock(itemsJson);
+
+        if (reserved.size() != items.size()) {
+            Set<String> reservedSkuCodes = reserved.stream()
+                    .map(SkuQuantity::getSkuCode)
+                    .collect(Collectors.toSet());
+            List<String> unavailable = items.stream()
+                    .map(InventoryRequest::getSkuCode)
+                    .filter(skuCode -> !reservedSkuCodes.contains(skuCode))
+                    .toList();
+
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Not enough stock for " + unavailable);
+        }
+
+        String reservationId = UUID.randomUUID().toString();
+        inventoryReservationRepository.insertReservation(reservationId, itemsJson);
+        publishStockChanges(reserved);
+
+        log.info("Reservation {} created for {} SKUs", reservationId, items.size());
+
+        return ReservationResponse.builder()
+                .reservationId(reservationId)
+                .items(items)
+                .build();
+    }
+
+    @Transactional
+    public void confirmReservation(String reservationId) {
+        if (inventoryReservationRepository.confirmReservation(reservationId) == 0) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No active reservation " + reservationId);
+        }
+
+        log.info("Reservation {} confirmed", reservationId);
+    }
+
+    @Transactional
+    public void releaseReservation(String reservationId) {
+        lockStock(inventoryReservationRepository.findReservedSkuCodes(reservationId));
+        List<SkuQuantityChange> released = inventoryRepository.releaseStock(reservationId);
+
+        if (released.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No active reservation " + reservationId);
+        }
+        publishStockChanges(released);
+
+        log.info("Reservation {} released", reservationId);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservation.expiry-check-interval:60s}")
+    @Transactional
+    public void releaseExpiredReservations() {
+        Instant createdBefore = Instant.now().minus(reservationTtl);
+        lockStock(inventoryReservationRepository.findExpiredSkuCodes(createdBefore));
+        List<SkuQuantityChange> released = inventoryRepository.releaseExpiredStock(createdBefore);
+
+        if (!released.isEmpty()) {
+            publishStockChanges(released);
+            log.info("Released expired reservations for {} SKUs", released.size());
+        }
+    }
+
+    private void lockStock(List<String> skuCodes) {
+        if (!skuCodes.isEmpty()) {
+            inventoryRepository.lockStock(skuCodes);
+        }
+    }
+
+    private void publishStockChanges(List<SkuQuantityChange> changes) {
+        changes.forEach(change ->
+                eventPublisher.publishEvent(new StockChangedEvent(change.getSkuCode(), change.getQuantity(), change.getDelta(), change.getVersion())));
+    }
+
+    private List<InventoryRequest> mergeItems(ReservationRequest reservationRequest) {
+        if (reservationRequest.getItems() == null || reservationRequest.getItems().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Reservation has no items");
+        }
+
+        // Sorted by SKU, the order in which the rows are locked
+        Map<String, Integer> quantities = new TreeMap<>();
+        for (InventoryRequest item : reservationRequest.getItems()) {
+            if (item.getSkuCode() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid reservation item " + item);
+            }
+            quantities.merge(item.getSkuCode(), item.getQuantity(), Integer::sum);
+        }
+
+        return quantities.entrySet().stream()
+                .map(entry -> new InventoryRequest(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    private String toJson(List<InventoryRequest> items) {
+        try {
+            return objectMapper.writeValueAsString(items);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize reservation items", e);
+        }
+    }
+}
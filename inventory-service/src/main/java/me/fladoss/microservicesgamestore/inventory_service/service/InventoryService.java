@@ -2,17 +2,23 @@ package me.fladoss.microservicesgamestore.inventory_service.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.inventory_service.cache.InventoryStockIndex;
 import me.fladoss.microservicesgamestore.inventory_service.dto.InventoryRequest;
 import me.fladoss.microservicesgamestore.inventory_service.dto.InventoryResponse;
 import me.fladoss.microservicesgamestore.inventory_service.entity.Inventory;
+import me.fladoss.microservicesgamestore.inventory_service.event.StockChangedEvent;
 import me.fladoss.microservicesgamestore.inventory_service.repository.InventoryRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
 
 @Service
 @RequiredArgsConstructor
@@ -21,13 +27,20 @@ public class InventoryService {
 
     private final InventoryRepository inventoryRepository;
 
-    @Transactional(readOnly = true)
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final InventoryStockIndex inventoryStockIndex;
+
+    private final FlashSaleService flashSaleService;
+
+    // Not transactional, so lookups served by the stock index never borrow a connection
     public List<InventoryResponse> isInStock(List<String> skuCodes) {
+        if (inventoryStockIndex.isReady()) {
+            return isInStockFromIndex(skuCodes);
+        }
+
         return inventoryRepository.findBySkuCodeIn(skuCodes).stream()
-                .map(inventory -> InventoryResponse.builder()
-                        .skuCode(inventory.getSkuCode())
-                        .isInStock(inventory.getQuantity() > 0)
-                        .build())
+                .map(inventory -> toInventoryResponse(inventory.getSkuCode(), inventory.getQuantity()))
                 .toList();
     }
 
@@ -36,35 +49,80 @@ public class InventoryService {
         Inventory inventory = Inventory.builder()
                 .quantity(inventoryRequest.getQuantity())
                 .skuCode(inventoryRequest.getSkuCode())
+                .version(inventoryRepository.nextVersion())
                 .build();
 
         inventoryRepository.save(inventory);
+        eventPublisher.publishEvent(new StockChangedEvent(inventory.getSkuCode(), inventory.getQuantity(),
+                quantityOf(inventory.getQuantity()), inventory.getVersion()));
     }
 
     @Transactional
     public void updateInventory(Long id, InventoryRequest inventoryRequest) {
         log.info("Searching for a product with id {} before UPDATE", id);
 
-        Inventory inventory = inventoryRepository.findById(id)
+        Inventory inventory = inventoryRepository.findByIdForUpdate(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
         log.info("Inventory with id {} found! Building a new inventory before creating...", id);
 
+        int previousQuantity = quantityOf(inventory.getQuantity());
+        boolean skuCodeChanged = !Objects.equals(inventory.getSkuCode(), inventoryRequest.getSkuCode());
+        long version = inventoryRepository.nextVersion();
+
+        if (skuCodeChanged) {
+            eventPublisher.publishEvent(new StockChangedEvent(inventory.getSkuCode(), null, -previousQuantity, version));
+        }
+
         inventory.setQuantity(inventoryRequest.getQuantity());
         inventory.setSkuCode(inventoryRequest.getSkuCode());
+        inventory.setVersion(version);
         inventoryRepository.save(inventory);
 
+        int delta = quantityOf(inventory.getQuantity()) - (skuCodeChanged ? 0 : previousQuantity);
+        eventPublisher.publishEvent(new StockChangedEvent(inventory.getSkuCode(), inventory.getQuantity(), delta, version));
+
         log.info("Inventory with id {} created successfully", inventory.getId());
     }
 
     @Transactional
     public void deleteInventory(Long id) {
-        if (!inventoryRepository.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
-        }
+        Inventory inventory = inventoryRepository.findByIdForUpdate(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
 
-        inventoryRepository.deleteById(id);
+        inventoryRepository.delete(inventory);
+        eventPublisher.publishEvent(new StockChangedEvent(inventory.getSkuCode(), null, -quantityOf(inventory.getQuantity()),
+                inventoryRepository.nextVersion()));
 
         log.info("Inventory with id {} deleted successfully", id);
     }
-}
\ No newline at end of file
+
+    private static int quantityOf(Integer quantity) {
+        return quantity != null ? quantity : 0;
+    }
+
+    // Same result as the query above (unknown SKUs are left out), answered from memory
+    private List<InventoryResponse> isInStockFromIndex(List<String> skuCodes) {
+        List<InventoryResponse> inventoryResponses = new ArrayList<>(skuCodes.size());
+
+        for (String skuCode : new LinkedHashSet<>(skuCodes)) {
+            int quantity = inventoryStockIndex.getQuantity(skuCode);
+            if (quantity != InventoryStockIndex.MISSING) {
+                inventoryResponses.add(toInventoryResponse(skuCode, quantity));
+            }
+        }
+
+        return inventoryResponses;
+    }
+
+    // Flash-sale units claimed by this instance are off the inventory row but still for sale
+    private InventoryResponse toInventoryResponse(String skuCode, Integer quantity) {
+        int available = (int) (quantityOf(quantity) + flashSaleService.getLocalAvailable(skuCode));
+
+        return InventoryResponse.builder()
+                .skuCode(skuCode)
+                .isInStock(available > 0)
+                .quantity(available)
+                .build();
+    }
+}
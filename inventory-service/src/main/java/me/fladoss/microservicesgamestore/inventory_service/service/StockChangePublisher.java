@@ -0,0 +1,88 @@
+package me.fladoss.microservicesgamestore.inventory_service.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.inventory_service.event.StockChangedEvent;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Forwards committed stock changes to Kafka, keyed by SKU, so other services can refresh their caches.
+// Changes are collected for a short window and compacted per SKU (latest quantity, summed delta),
+// so a hot SKU produces one message per window instead of one per order. A change that fails to send
+// goes back into the window and is retried with the next flush.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockChangePublisher {
+
+    public static final String STOCK_CHANGED_TOPIC = "inventoryStockChanged";
+
+    private final KafkaTemplate<String, StockChangedEvent> kafkaTemplate;
+
+    private final Object lock = new Object();
+
+    private Map<String, StockChangedEvent> pending = new LinkedHashMap<>();
+
+    @TransactionalEventListener
+    public void onStockChanged(StockChangedEvent stockChangedEvent) {
+        enqueue(stockChangedEvent);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.stock-events.window:100ms}")
+    @PreDestroy
+    public void flush() {
+        Map<String, StockChangedEvent> batch;
+
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        batch.values().forEach(this::send);
+        log.debug("Published stock changes for {} SKUs", batch.size());
+    }
+
+    private void send(StockChangedEvent stockChangedEvent) {
+        try {
+            kafkaTemplate.send(STOCK_CHANGED_TOPIC, stockChangedEvent.getSkuCode(), stockChangedEvent)
+                    .whenComplete((sendResult, throwable) -> {
+                        if (throwable != null) {
+                            log.error("Error publishing stock change for SKU {}", stockChangedEvent.getSkuCode(), throwable);
+                            enqueue(stockChangedEvent);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            log.error("Error publishing stock change for SKU {}", stockChangedEvent.getSkuCode(), e);
+            enqueue(stockChangedEvent);
+        }
+    }
+
+    // A re-queued change merges with any newer change of its SKU: the delta was never published, so it is summed in
+    private void enqueue(StockChangedEvent stockChangedEvent) {
+        synchronized (lock) {
+            pending.merge(stockChangedEvent.getSkuCode(), stockChangedEvent, StockChangePublisher::compact);
+        }
+    }
+
+    private static StockChangedEvent compact(StockChangedEvent older, StockChangedEvent newer) {
+        Integer delta = older.getDelta() != null && newer.getDelta() != null
+                ? Integer.valueOf(older.getDelta() + newer.getDelta())
+                : null;
+
+        // Listeners may see commits out of order; the higher version has the latest quantity
+        StockChangedEvent latest = older.getVersion() != null && newer.getVersion() != null && older.getVersion() > newer.getVersion()
+                ? older
+                : newer;
+
+        return new StockChangedEvent(latest.getSkuCode(), latest.getQuantity(), delta, latest.getVersion());
+    }
+}
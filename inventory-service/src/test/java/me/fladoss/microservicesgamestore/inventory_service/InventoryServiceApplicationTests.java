@@ -3,7 +3,12 @@ package me.fladoss.microservicesgamestore.inventory_service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import me.fladoss.microservicesgamestore.inventory_service.dto.InventoryRequest;
+import me.fladoss.microservicesgamestore.inventory_service.dto.ReservationRequest;
+import me.fladoss.microservicesgamestore.inventory_service.dto.ReservationResponse;
+import me.fladoss.microservicesgamestore.inventory_service.repository.InventoryRepository;
+import me.fladoss.microservicesgamestore.inventory_service.service.InventoryReservationService;
 import me.fladoss.microservicesgamestore.inventory_service.service.InventoryService;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -18,6 +23,8 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.util.List;
+
 @SpringBootTest
 @Testcontainers
 @AutoConfigureMockMvc
@@ -35,6 +42,8 @@ class InventoryServiceApplicationTests {
         registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
         registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
         registry.add("spring.liquibase.change-log", () -> "classpath:/db/changelog/liquibase_inventory.changelog-test.yaml");
+        registry.add("spring.kafka.producer.properties.max.block.ms", () -> "500");
+        registry.add("spring.kafka.admin.auto-create", () -> "false");
     }
 
     @Autowired
@@ -46,6 +55,12 @@ class InventoryServiceApplicationTests {
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private InventoryReservationService inventoryReservationService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
     @Test
     void shouldCreateInventory() throws Exception {
         InventoryRequest inventoryRequest = getInventoryRequestPost();
@@ -58,6 +73,61 @@ class InventoryServiceApplicationTests {
                 .andExpect(MockMvcResultMatchers.status().isCreated());
     }
 
+    @Test
+    void shouldReserveAndReleaseStock() throws Exception {
+        ReservationRequest reservationRequest = ReservationRequest.builder()
+                .items(List.of(new InventoryRequest("GAME_PC-The_Talos_Principle", 3)))
+                .build();
+
+        ReservationResponse reservationResponse = inventoryReservationService.reserve(reservationRequest);
+        Assertions.assertEquals(97, getQuantity("GAME_PC-The_Talos_Principle"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/inventory/reservation/{id}/release", reservationResponse.getReservationId()))
+                .andExpect(MockMvcResultMatchers.status().isOk());
+        Assertions.assertEquals(100, getQuantity("GAME_PC-The_Talos_Principle"));
+    }
+
+    @Test
+    void shouldRejectReservationWithoutEnoughStock() throws Exception {
+        ReservationRequest reservationRequest = ReservationRequest.builder()
+                .items(List.of(
+                        new InventoryRequest("GAME_PC-The_Talos_Principle", 1),
+                        new InventoryRequest("GAME_PC-Unknown", 1)))
+                .build();
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/inventory/reservation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reservationRequest)))
+                .andExpect(MockMvcResultMatchers.status().isConflict());
+        Assertions.assertEquals(100, getQuantity("GAME_PC-The_Talos_Principle"));
+    }
+
+    @Test
+    void shouldBulkImportStock() throws Exception {
+        String csv = """
+                skuCode,quantity
+                GAME_PC-Bulk_1,5
+                GAME_PC-Bulk_2,7
+                GAME_PC-Bulk_1,9
+                not-a-row
+                """;
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/inventory/bulk")
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.inserted").value(2))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.rejected").value(1));
+        Assertions.assertEquals(9, getQuantity("GAME_PC-Bulk_1"));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/inventory/bulk")
+                        .contentType("application/x-ndjson")
+                        .content("{\"skuCode\":\"GAME_PC-Bulk_2\",\"quantity\":3}\n"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.updated").value(1));
+        Assertions.assertEquals(3, getQuantity("GAME_PC-Bulk_2"));
+    }
+
 //    @Test
 //    void shouldBeInStock() throws Exception {
 //        mockMvc.perform((MockMvcRequestBuilders.get("/api/inventory/GAME_PC-The_Talos_Principle")))
@@ -76,6 +146,10 @@ class InventoryServiceApplicationTests {
 //        Assertions.assertTrue(inventoryService.isInStock("GAME_PC-Outward-2"));
 //    }
 
+    private int getQuantity(String skuCode) {
+        return inventoryRepository.findBySkuCodeIn(List.of(skuCode)).get(0).getQuantity();
+    }
+
     private InventoryRequest getInventoryRequestPost() {
         return InventoryRequest.builder()
                 .quantity(100)
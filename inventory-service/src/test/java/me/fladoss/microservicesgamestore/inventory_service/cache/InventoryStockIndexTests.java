@@ -0,0 +1,71 @@
+package me.fladoss.microservicesgamestore.inventory_service.cache;
+
+import me.fladoss.microservicesgamestore.inventory_service.dto.SkuQuantity;
+import me.fladoss.microservicesgamestore.inventory_service.event.StockChangedEvent;
+import me.fladoss.microservicesgamestore.inventory_service.repository.InventoryRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.List;
+
+class InventoryStockIndexTests {
+
+    private static final String GAME = "GAME_PC-The_Talos_Principle";
+
+    private final InventoryRepository inventoryRepository = Mockito.mock(InventoryRepository.class);
+
+    private final InventoryStockIndex inventoryStockIndex = new InventoryStockIndex(inventoryRepository, true);
+
+    @Test
+    void shouldIgnoreChangesOlderThanIndexed() {
+        Mockito.when(inventoryRepository.findAllSkuQuantities()).thenReturn(List.of(row(GAME, 100, 10L), row("GAME_PC-Empty", null, 11L)));
+        inventoryStockIndex.reload();
+        Assertions.assertEquals(0, inventoryStockIndex.getQuantity("GAME_PC-Empty"));
+
+        // Two orders commit in this order, their listeners run the other way round
+        inventoryStockIndex.onStockChanged(new StockChangedEvent(GAME, 97, -1, 13L));
+        inventoryStockIndex.onStockChanged(new StockChangedEvent(GAME, 98, -2, 12L));
+        Assertions.assertEquals(97, inventoryStockIndex.getQuantity(GAME));
+
+        inventoryStockIndex.onStockChanged(new StockChangedEvent(GAME, null, -97, 15L));
+        inventoryStockIndex.onStockChanged(new StockChangedEvent(GAME, 96, -1, 14L));
+        Assertions.assertEquals(InventoryStockIndex.MISSING, inventoryStockIndex.getQuantity(GAME));
+
+        // Created again with a newer row version
+        inventoryStockIndex.onStockChanged(new StockChangedEvent(GAME, 5, 5, 16L));
+        Assertions.assertEquals(5, inventoryStockIndex.getQuantity(GAME));
+    }
+
+    @Test
+    void shouldKeepChangesNewerThanReloadedTable() {
+        // A change committed while the table is read, after the snapshot the reload sees
+        Mockito.when(inventoryRepository.findAllSkuQuantities()).thenAnswer(invocation -> {
+            inventoryStockIndex.onStockChanged(new StockChangedEvent(GAME, 90, -10, 20L));
+            return List.of(row(GAME, 100, 10L));
+        });
+
+        inventoryStockIndex.reload();
+
+        Assertions.assertEquals(90, inventoryStockIndex.getQuantity(GAME));
+    }
+
+    private static SkuQuantity row(String skuCode, Integer quantity, Long version) {
+        return new SkuQuantity() {
+            @Override
+            public String getSkuCode() {
+                return skuCode;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public Long getVersion() {
+                return version;
+            }
+        };
+    }
+}
@@ -0,0 +1,58 @@
+package me.fladoss.microservicesgamestore.inventory_service.cache;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+class StripedStockCounterTests {
+
+    @Test
+    void shouldSpreadUnitsAndTakeAcrossCells() {
+        StripedStockCounter counter = new StripedStockCounter(4);
+        counter.add(10);
+
+        Assertions.assertEquals(10, counter.sum());
+        // 3 units sit in no single cell (10 = 3 + 3 + 2 + 2), so a take of 3 has to find one of the larger cells
+        Assertions.assertTrue(counter.tryTake(3));
+        Assertions.assertEquals(7, counter.sum());
+        Assertions.assertFalse(counter.tryTake(4), "no cell holds 4 units");
+
+        Assertions.assertEquals(7, counter.drain());
+        Assertions.assertEquals(0, counter.sum());
+        Assertions.assertFalse(counter.tryTake(1));
+    }
+
+    @Test
+    void shouldNeverTakeMoreThanWasAddedConcurrently() throws Exception {
+        StripedStockCounter counter = new StripedStockCounter(8);
+        counter.add(10_000);
+        AtomicInteger taken = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        if (counter.tryTake(1)) {
+                            taken.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(10_000, taken.get() + counter.sum());
+    }
+}
@@ -0,0 +1,51 @@
+package me.fladoss.microservicesgamestore.inventory_service.codec;
+
+import me.fladoss.microservicesgamestore.inventory_service.dto.InventoryResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+class InventoryStockCodecTests {
+
+    @Test
+    void shouldReadRequest() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(1);
+        output.writeInt(2);
+        output.writeUTF("GAME_PC-The_Talos_Principle");
+        output.writeUTF("GAME_PC-Ünicode");
+
+        Assertions.assertEquals(List.of("GAME_PC-The_Talos_Principle", "GAME_PC-Ünicode"),
+                InventoryStockCodec.readRequest(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    void shouldRejectOtherVersions() {
+        Assertions.assertThrows(IOException.class,
+                () -> InventoryStockCodec.readRequest(new ByteArrayInputStream(new byte[]{2, 0, 0, 0, 0})));
+    }
+
+    @Test
+    void shouldWriteResponseWithMissingQuantity() throws IOException {
+        byte[] body = InventoryStockCodec.writeResponse(List.of(
+                InventoryResponse.builder().skuCode("in-stock").isInStock(true).quantity(7).build(),
+                InventoryResponse.builder().skuCode("no-quantity").isInStock(false).build()));
+
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(body));
+        Assertions.assertEquals(1, input.readByte());
+        Assertions.assertEquals(2, input.readInt());
+        Assertions.assertEquals("in-stock", input.readUTF());
+        Assertions.assertTrue(input.readBoolean());
+        Assertions.assertEquals(7, input.readInt());
+        Assertions.assertEquals("no-quantity", input.readUTF());
+        Assertions.assertFalse(input.readBoolean());
+        Assertions.assertEquals(0, input.available());
+    }
+}
@@ -0,0 +1,127 @@
+package me.fladoss.microservicesgamestore.inventory_service.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+// Wired like ReadReplicaDataSourceConfig: the routing data source behind a LazyConnectionDataSourceProxy
+class ReadReplicaRoutingDataSourceTests {
+
+    private final DataSource primaryDataSource = Mockito.mock(DataSource.class);
+
+    private final DataSource replicaDataSource = Mockito.mock(DataSource.class);
+
+    private final JdbcTemplate replicaJdbcTemplate = Mockito.mock(JdbcTemplate.class);
+
+    private final ReplicaLagMonitor replicaLagMonitor = new ReplicaLagMonitor(replicaJdbcTemplate, Duration.ofSeconds(5));
+
+    private DataSource dataSource;
+
+    private TransactionTemplate transactionTemplate;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        Connection primaryConnection = Mockito.mock(Connection.class);
+        Connection replicaConnection = Mockito.mock(Connection.class);
+        Mockito.when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+        Mockito.when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+
+        ReadReplicaRoutingDataSource routingDataSource =
+                new ReadReplicaRoutingDataSource(primaryDataSource, replicaDataSource, replicaLagMonitor);
+        routingDataSource.afterPropertiesSet();
+
+        // Explicit defaults, so the proxy does not open a connection of its own to find them out
+        LazyConnectionDataSourceProxy lazyDataSource = new LazyConnectionDataSourceProxy();
+        lazyDataSource.setDefaultAutoCommit(true);
+        lazyDataSource.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        lazyDataSource.setTargetDataSource(routingDataSource);
+        lazyDataSource.afterPropertiesSet();
+        dataSource = lazyDataSource;
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Test
+    void shouldRouteReadOnlyTransactionToReplica() throws SQLException {
+        reportLag(1_200L);
+
+        readOnlyTransactionTemplate.executeWithoutResult(status -> runStatement());
+
+        Mockito.verify(replicaDataSource).getConnection();
+        Mockito.verify(primaryDataSource, Mockito.never()).getConnection();
+    }
+
+    @Test
+    void shouldFallBackToPrimaryWhenReplicaLags() throws SQLException {
+        reportLag(6_000L);
+
+        readOnlyTransactionTemplate.executeWithoutResult(status -> runStatement());
+
+        Mockito.verify(primaryDataSource).getConnection();
+        Mockito.verify(replicaDataSource, Mockito.never()).getConnection();
+    }
+
+    @Test
+    void shouldFallBackToPrimaryBeforeFirstLagCheck() throws SQLException {
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable());
+
+        readOnlyTransactionTemplate.executeWithoutResult(status -> runStatement());
+
+        Mockito.verify(primaryDataSource).getConnection();
+        Mockito.verify(replicaDataSource, Mockito.never()).getConnection();
+    }
+
+    @Test
+    void shouldRouteReadWriteTransactionToPrimary() throws SQLException {
+        reportLag(0L);
+
+        transactionTemplate.executeWithoutResult(status -> runStatement());
+
+        Mockito.verify(primaryDataSource).getConnection();
+        Mockito.verify(replicaDataSource, Mockito.never()).getConnection();
+    }
+
+    @Test
+    void shouldRouteConnectionOutsideTransactionToPrimary() throws SQLException {
+        reportLag(0L);
+
+        runStatement();
+
+        Mockito.verify(primaryDataSource).getConnection();
+        Mockito.verify(replicaDataSource, Mockito.never()).getConnection();
+    }
+
+    // The lazy proxy only picks the physical connection when the first statement is created
+    private void runStatement() {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            connection.createStatement();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private void reportLag(Long lagMs) {
+        Mockito.when(replicaJdbcTemplate.queryForObject(ArgumentMatchers.anyString(), ArgumentMatchers.eq(Long.class))).thenReturn(lagMs);
+        replicaLagMonitor.checkLag();
+    }
+}
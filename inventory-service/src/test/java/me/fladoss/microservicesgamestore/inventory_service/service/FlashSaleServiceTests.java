@@ -0,0 +1,173 @@
+package me.fladoss.microservicesgamestore.inventory_service.service;
+
+import me.fladoss.microservicesgamestore.inventory_service.dto.SkuQuantityChange;
+import me.fladoss.microservicesgamestore.inventory_service.repository.FlashSaleAllocationRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+class FlashSaleServiceTests {
+
+    private static final String GAME_A = "game/A";
+
+    private static final String GAME_B = "game/B";
+
+    private final FlashSaleAllocationRepository flashSaleAllocationRepository = Mockito.mock(FlashSaleAllocationRepository.class);
+
+    // Units still in the inventory rows
+    private final Map<String, Integer> inventory = new HashMap<>();
+
+    private FlashSaleService flashSaleService;
+
+    @BeforeEach
+    void setUp() {
+        inventory.put(GAME_A, 15);
+        inventory.put(GAME_B, 15);
+
+        Mockito.when(flashSaleAllocationRepository.claimStock(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()))
+                .thenAnswer(invocation -> {
+                    String skuCode = invocation.getArgument(1);
+                    int amount = Math.min(invocation.<Integer>getArgument(2), inventory.get(skuCode));
+                    if (amount == 0) {
+                        return List.of();
+                    }
+                    inventory.merge(skuCode, -amount, Integer::sum);
+                    return List.of(change(skuCode, inventory.get(skuCode), -amount));
+                });
+
+        flashSaleService = new FlashSaleService(
+                flashSaleAllocationRepository,
+                Mockito.mock(ApplicationEventPublisher.class),
+                new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+                List.of(GAME_A, GAME_B),
+                2,
+                10,
+                Duration.ofSeconds(30));
+    }
+
+    @Test
+    void shouldSellFromClaimedChunksUntilSoldOut() {
+        Assertions.assertFalse(flashSaleService.purchase(GAME_A, 1).isDone(), "a sale is answered only once confirmed");
+        Assertions.assertEquals(9, flashSaleService.getLocalAvailable(GAME_A));
+
+        for (int i = 0; i < 9; i++) {
+            flashSaleService.purchase(GAME_A, 1);
+        }
+        Mockito.verify(flashSaleAllocationRepository, Mockito.times(1)).claimStock(ArgumentMatchers.anyString(), ArgumentMatchers.eq(GAME_A), ArgumentMatchers.anyInt());
+
+        // The refill claims the last 5 units
+        flashSaleService.purchase(GAME_A, 5);
+        Assertions.assertEquals(0, inventory.get(GAME_A));
+        Assertions.assertFalse(flashSaleService.purchase(GAME_A, 1).join());
+    }
+
+    @Test
+    void shouldConfirmSalesOnFlush() {
+        Mockito.when(flashSaleAllocationRepository.confirmSold(ArgumentMatchers.anyString(), ArgumentMatchers.eq(GAME_A), ArgumentMatchers.eq(3))).thenReturn(1);
+
+        CompletableFuture<Boolean> first = flashSaleService.purchase(GAME_A, 1);
+        CompletableFuture<Boolean> second = flashSaleService.purchase(GAME_A, 2);
+        flashSaleService.flush();
+
+        Assertions.assertTrue(first.join());
+        Assertions.assertTrue(second.join());
+        Mockito.verify(flashSaleAllocationRepository).heartbeat(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void shouldFailOnlyTheSkuWhoseConfirmFails() {
+        Mockito.when(flashSaleAllocationRepository.confirmSold(ArgumentMatchers.anyString(), ArgumentMatchers.eq(GAME_A), ArgumentMatchers.anyInt()))
+                .thenThrow(new IllegalStateException("connection lost"));
+        Mockito.when(flashSaleAllocationRepository.confirmSold(ArgumentMatchers.anyString(), ArgumentMatchers.eq(GAME_B), ArgumentMatchers.anyInt())).thenReturn(1);
+
+        CompletableFuture<Boolean> saleOfA = flashSaleService.purchase(GAME_A, 2);
+        CompletableFuture<Boolean> saleOfB = flashSaleService.purchase(GAME_B, 2);
+        flashSaleService.flush();
+
+        Assertions.assertThrows(CompletionException.class, saleOfA::join);
+        // The units of the failed sale are still held by the allocation and go back on sale
+        Assertions.assertEquals(10, flashSaleService.getLocalAvailable(GAME_A));
+        Assertions.assertTrue(saleOfB.join());
+    }
+
+    @Test
+    void shouldClaimAgainWhenAllocationWasReturnedAsStale() {
+        // The first confirm finds no allocation: another instance returned it to inventory
+        Mockito.when(flashSaleAllocationRepository.confirmSold(ArgumentMatchers.anyString(), ArgumentMatchers.eq(GAME_A), ArgumentMatchers.eq(2)))
+                .thenReturn(0, 1);
+
+        CompletableFuture<Boolean> sale = flashSaleService.purchase(GAME_A, 2);
+        inventory.merge(GAME_A, 10, Integer::sum);
+        flashSaleService.flush();
+
+        Assertions.assertTrue(sale.join());
+        // The 8 units left from the lost chunk were dropped, the new 10-unit chunk paid for the sale
+        Assertions.assertEquals(8, flashSaleService.getLocalAvailable(GAME_A));
+        Assertions.assertEquals(5, inventory.get(GAME_A));
+    }
+
+    @Test
+    void shouldAnswerSoldOutWhenLostAllocationCannotBeClaimedAgain() {
+        Mockito.when(flashSaleAllocationRepository.confirmSold(ArgumentMatchers.anyString(), ArgumentMatchers.eq(GAME_A), ArgumentMatchers.anyInt())).thenReturn(0);
+
+        CompletableFuture<Boolean> sale = flashSaleService.purchase(GAME_A, 2);
+        inventory.put(GAME_A, 1);
+        flashSaleService.flush();
+
+        Assertions.assertFalse(sale.join());
+        Assertions.assertEquals(1, flashSaleService.getLocalAvailable(GAME_A));
+    }
+
+    @Test
+    void shouldConfirmPendingSalesAndRefuseNewOnesOnShutdown() {
+        Mockito.when(flashSaleAllocationRepository.confirmSold(ArgumentMatchers.anyString(), ArgumentMatchers.eq(GAME_A), ArgumentMatchers.anyInt())).thenReturn(1);
+
+        CompletableFuture<Boolean> sale = flashSaleService.purchase(GAME_A, 1);
+        flashSaleService.shutdown();
+
+        Assertions.assertTrue(sale.join());
+        Mockito.verify(flashSaleAllocationRepository).returnHeldStock(ArgumentMatchers.anyString());
+        Assertions.assertEquals(0, flashSaleService.getLocalAvailable(GAME_A));
+
+        ResponseStatusException exception = Assertions.assertThrows(ResponseStatusException.class, () -> flashSaleService.purchase(GAME_A, 1));
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatusCode());
+    }
+
+    private static SkuQuantityChange change(String skuCode, int quantity, int delta) {
+        return new SkuQuantityChange() {
+            @Override
+            public Integer getDelta() {
+                return delta;
+            }
+
+            @Override
+            public String getSkuCode() {
+                return skuCode;
+            }
+
+            @Override
+            public Integer getQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public Long getVersion() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package me.fladoss.microservicesgamestore.inventory_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.fladoss.microservicesgamestore.inventory_service.dto.BulkImportResponse;
+import me.fladoss.microservicesgamestore.inventory_service.dto.UpsertedStock;
+import me.fladoss.microservicesgamestore.inventory_service.repository.InventoryRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+class InventoryBulkImportServiceTests {
+
+    private final InventoryRepository inventoryRepository = Mockito.mock(InventoryRepository.class);
+
+    private final InventoryBulkImportService inventoryBulkImportService = new InventoryBulkImportService(
+            inventoryRepository,
+            Mockito.mock(ApplicationEventPublisher.class),
+            new ObjectMapper(),
+            new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(inventoryBulkImportService, "batchSize", 1000);
+        Mockito.when(inventoryRepository.upsertStock(ArgumentMatchers.anyString())).thenReturn(List.of());
+    }
+
+    @Test
+    void shouldSkipExpectedCsvHeader() {
+        BulkImportResponse response = importCsv("\"skuCode\",\"quantity\"\nGAME_PC-Dredge,5\n");
+
+        Assertions.assertEquals(0, response.getRejected());
+        Mockito.verify(inventoryRepository).upsertStock("[{\"skuCode\":\"GAME_PC-Dredge\",\"quantity\":5}]");
+    }
+
+    @Test
+    void shouldRejectUnparsableFirstLineThatIsNotTheHeader() {
+        BulkImportResponse response = importCsv("GAME_PC-Dredge;5\nGAME_PC-The_Talos_Principle,3\n");
+
+        Assertions.assertEquals(1, response.getRejected());
+        Mockito.verify(inventoryRepository).upsertStock("[{\"skuCode\":\"GAME_PC-The_Talos_Principle\",\"quantity\":3}]");
+    }
+
+    @Test
+    void shouldCountRowsAlreadyHoldingTheQuantityAsUnchanged() {
+        UpsertedStock updated = Mockito.mock(UpsertedStock.class);
+        Mockito.when(updated.getSkuCode()).thenReturn("GAME_PC-Dredge");
+        Mockito.when(updated.getInserted()).thenReturn(false);
+        Mockito.when(inventoryRepository.upsertStock(ArgumentMatchers.anyString())).thenReturn(List.of(updated));
+
+        BulkImportResponse response = importCsv("skuCode,quantity\nGAME_PC-The_Talos_Principle,3\nGAME_PC-Dredge,5\n");
+
+        Assertions.assertEquals(1, response.getRows());
+        Assertions.assertEquals(1, response.getUpdated());
+        Assertions.assertEquals(1, response.getUnchanged());
+    }
+
+    @Test
+    void shouldUpsertBatchInSkuOrderKeepingLastValue() {
+        importCsv("GAME_PC-The_Talos_Principle,3\nGAME_PC-Dredge,5\nGAME_PC-The_Talos_Principle,4\n");
+
+        Mockito.verify(inventoryRepository).upsertStock(
+                "[{\"skuCode\":\"GAME_PC-Dredge\",\"quantity\":5},{\"skuCode\":\"GAME_PC-The_Talos_Principle\",\"quantity\":4}]");
+    }
+
+    private BulkImportResponse importCsv(String body) {
+        return inventoryBulkImportService.importStock(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), InventoryBulkImportService.Format.CSV);
+    }
+}
@@ -0,0 +1,88 @@
+package me.fladoss.microservicesgamestore.inventory_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.fladoss.microservicesgamestore.inventory_service.dto.InventoryRequest;
+import me.fladoss.microservicesgamestore.inventory_service.dto.ReservationRequest;
+import me.fladoss.microservicesgamestore.inventory_service.dto.ReservationResponse;
+import me.fladoss.microservicesgamestore.inventory_service.dto.SkuQuantityChange;
+import me.fladoss.microservicesgamestore.inventory_service.repository.InventoryRepository;
+import me.fladoss.microservicesgamestore.inventory_service.repository.InventoryReservationRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+class InventoryReservationServiceTests {
+
+    private final InventoryRepository inventoryRepository = Mockito.mock(InventoryRepository.class);
+
+    private final InventoryReservationRepository inventoryReservationRepository = Mockito.mock(InventoryReservationRepository.class);
+
+    private final InventoryReservationService inventoryReservationService = new InventoryReservationService(
+            inventoryRepository,
+            inventoryReservationRepository,
+            new ObjectMapper(),
+            Mockito.mock(ApplicationEventPublisher.class));
+
+    @Test
+    void shouldLockAndReserveInSkuOrder() {
+        List<SkuQuantityChange> reserved = List.of(change("GAME_PC-Dredge", 7), change("GAME_PC-The_Talos_Principle", 8));
+        Mockito.when(inventoryRepository.reserveStock(ArgumentMatchers.anyString())).thenReturn(reserved);
+
+        // {B, A, B} from one cart must lock like {A, B} from another
+        ReservationResponse response = inventoryReservationService.reserve(new ReservationRequest(List.of(
+                new InventoryRequest("GAME_PC-The_Talos_Principle", 1),
+                new InventoryRequest("GAME_PC-Dredge", 2),
+                new InventoryRequest("GAME_PC-The_Talos_Principle", 1))));
+
+        InOrder inOrder = Mockito.inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).lockStock(List.of("GAME_PC-Dredge", "GAME_PC-The_Talos_Principle"));
+        inOrder.verify(inventoryRepository).reserveStock(
+                "[{\"skuCode\":\"GAME_PC-Dredge\",\"quantity\":2},{\"skuCode\":\"GAME_PC-The_Talos_Principle\",\"quantity\":2}]");
+        Assertions.assertEquals(List.of(
+                new InventoryRequest("GAME_PC-Dredge", 2),
+                new InventoryRequest("GAME_PC-The_Talos_Principle", 2)), response.getItems());
+    }
+
+    @Test
+    void shouldRejectReservationWhenSomeSkuLacksStock() {
+        List<SkuQuantityChange> reserved = List.of(change("GAME_PC-Dredge", 7));
+        Mockito.when(inventoryRepository.reserveStock(ArgumentMatchers.anyString())).thenReturn(reserved);
+
+        ResponseStatusException exception = Assertions.assertThrows(ResponseStatusException.class, () ->
+                inventoryReservationService.reserve(new ReservationRequest(List.of(
+                        new InventoryRequest("GAME_PC-Dredge", 2),
+                        new InventoryRequest("GAME_PC-The_Talos_Principle", 1)))));
+
+        Assertions.assertEquals(HttpStatus.CONFLICT, exception.getStatusCode());
+        Mockito.verify(inventoryReservationRepository, Mockito.never())
+                .insertReservation(ArgumentMatchers.anyString(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void shouldLockReservedRowsBeforeRelease() {
+        Mockito.when(inventoryReservationRepository.findReservedSkuCodes("reservation"))
+                .thenReturn(List.of("GAME_PC-Dredge", "GAME_PC-The_Talos_Principle"));
+        List<SkuQuantityChange> released = List.of(change("GAME_PC-Dredge", 9), change("GAME_PC-The_Talos_Principle", 10));
+        Mockito.when(inventoryRepository.releaseStock("reservation")).thenReturn(released);
+
+        inventoryReservationService.releaseReservation("reservation");
+
+        InOrder inOrder = Mockito.inOrder(inventoryRepository);
+        inOrder.verify(inventoryRepository).lockStock(List.of("GAME_PC-Dredge", "GAME_PC-The_Talos_Principle"));
+        inOrder.verify(inventoryRepository).releaseStock("reservation");
+    }
+
+    private static SkuQuantityChange change(String skuCode, int quantity) {
+        SkuQuantityChange change = Mockito.mock(SkuQuantityChange.class);
+        Mockito.when(change.getSkuCode()).thenReturn(skuCode);
+        Mockito.when(change.getQuantity()).thenReturn(quantity);
+        return change;
+    }
+}
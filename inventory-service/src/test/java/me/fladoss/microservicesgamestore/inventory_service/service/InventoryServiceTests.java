@@ -0,0 +1,35 @@
+package me.fladoss.microservicesgamestore.inventory_service.service;
+
+import me.fladoss.microservicesgamestore.inventory_service.cache.InventoryStockIndex;
+import me.fladoss.microservicesgamestore.inventory_service.dto.InventoryResponse;
+import me.fladoss.microservicesgamestore.inventory_service.entity.Inventory;
+import me.fladoss.microservicesgamestore.inventory_service.repository.InventoryRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+
+class InventoryServiceTests {
+
+    private final InventoryRepository inventoryRepository = Mockito.mock(InventoryRepository.class);
+
+    private final InventoryService inventoryService = new InventoryService(
+            inventoryRepository,
+            Mockito.mock(ApplicationEventPublisher.class),
+            Mockito.mock(InventoryStockIndex.class),
+            Mockito.mock(FlashSaleService.class));
+
+    @Test
+    void shouldTreatMissingQuantityAsOutOfStock() {
+        Mockito.when(inventoryRepository.findBySkuCodeIn(List.of("GAME_PC-Empty")))
+                .thenReturn(List.of(Inventory.builder().id(1L).skuCode("GAME_PC-Empty").build()));
+
+        List<InventoryResponse> responses = inventoryService.isInStock(List.of("GAME_PC-Empty"));
+
+        Assertions.assertEquals(1, responses.size());
+        Assertions.assertFalse(responses.get(0).isInStock());
+        Assertions.assertEquals(0, responses.get(0).getQuantity());
+    }
+}
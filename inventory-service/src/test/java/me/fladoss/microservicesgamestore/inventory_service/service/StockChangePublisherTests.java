@@ -0,0 +1,100 @@
+package me.fladoss.microservicesgamestore.inventory_service.service;
+
+import me.fladoss.microservicesgamestore.inventory_service.event.StockChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+class StockChangePublisherTests {
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, StockChangedEvent> kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+
+    private final StockChangePublisher stockChangePublisher = new StockChangePublisher(kafkaTemplate);
+
+    @Test
+    void shouldPublishOneEventPerSkuWithLatestVersion() {
+        Mockito.when(kafkaTemplate.send(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(CompletableFuture.completedFuture(sendResult()));
+
+        stockChangePublisher.onStockChanged(new StockChangedEvent("GAME_PC-Portal_2", 9, -1, 11L));
+        // Committed after the next change but seen later by the listener
+        stockChangePublisher.onStockChanged(new StockChangedEvent("GAME_PC-Portal_2", 7, -2, 13L));
+        stockChangePublisher.onStockChanged(new StockChangedEvent("GAME_PC-Portal_2", 8, -1, 12L));
+        stockChangePublisher.onStockChanged(new StockChangedEvent("GAME_PC-Doom", 4, -1, 5L));
+        stockChangePublisher.flush();
+
+        List<StockChangedEvent> published = publishedEvents(2);
+        Assertions.assertEquals(new StockChangedEvent("GAME_PC-Portal_2", 7, -4, 13L), published.get(0));
+        Assertions.assertEquals(new StockChangedEvent("GAME_PC-Doom", 4, -1, 5L), published.get(1));
+    }
+
+    @Test
+    void shouldRetryChangeWhoseSendFailed() {
+        Mockito.when(kafkaTemplate.send(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(sendResult()));
+
+        stockChangePublisher.onStockChanged(new StockChangedEvent("GAME_PC-Portal_2", 9, -1, 11L));
+        stockChangePublisher.flush();
+        stockChangePublisher.flush();
+
+        List<StockChangedEvent> published = publishedEvents(2);
+        Assertions.assertEquals(published.get(0), published.get(1));
+    }
+
+    @Test
+    void shouldRetryChangeWhenSendThrows() {
+        Mockito.when(kafkaTemplate.send(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenThrow(new IllegalStateException("producer closed"))
+                .thenReturn(CompletableFuture.completedFuture(sendResult()));
+
+        stockChangePublisher.onStockChanged(new StockChangedEvent("GAME_PC-Portal_2", 9, -1, 11L));
+        stockChangePublisher.flush();
+        stockChangePublisher.flush();
+
+        List<StockChangedEvent> published = publishedEvents(2);
+        Assertions.assertEquals(new StockChangedEvent("GAME_PC-Portal_2", 9, -1, 11L), published.get(1));
+    }
+
+    @Test
+    void shouldMergeFailedChangeWithNewerChange() {
+        Mockito.when(kafkaTemplate.send(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(sendResult()));
+
+        stockChangePublisher.onStockChanged(new StockChangedEvent("GAME_PC-Portal_2", 9, -1, 11L));
+        stockChangePublisher.flush();
+        stockChangePublisher.onStockChanged(new StockChangedEvent("GAME_PC-Portal_2", 6, -3, 12L));
+        stockChangePublisher.flush();
+
+        // The failed delta was never published, so the retry carries it along with the newer change
+        List<StockChangedEvent> published = publishedEvents(2);
+        Assertions.assertEquals(new StockChangedEvent("GAME_PC-Portal_2", 6, -4, 12L), published.get(1));
+    }
+
+    @Test
+    void shouldNotPublishWhenNothingChanged() {
+        stockChangePublisher.flush();
+
+        Mockito.verifyNoInteractions(kafkaTemplate);
+    }
+
+    private List<StockChangedEvent> publishedEvents(int count) {
+        ArgumentCaptor<StockChangedEvent> captor = ArgumentCaptor.forClass(StockChangedEvent.class);
+        Mockito.verify(kafkaTemplate, Mockito.times(count)).send(
+                ArgumentMatchers.eq(StockChangePublisher.STOCK_CHANGED_TOPIC), ArgumentMatchers.anyString(), captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static SendResult<String, StockChangedEvent> sendResult() {
+        return new SendResult<>(null, null);
+    }
+}
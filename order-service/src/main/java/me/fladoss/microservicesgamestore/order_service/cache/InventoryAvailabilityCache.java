@@ -0,0 +1,89 @@
+package me.fladoss.microservicesgamestore.order_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.order_service.dto.InventoryResponse;
+import me.fladoss.microservicesgamestore.order_service.event.StockChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+// Last known stock of SKUs that are comfortably above the low-stock threshold; anything close to
+// running out is never answered from here and always goes to inventory-service.
+// Stock events carry the inventory row version and an older event never overwrites a newer one; a SKU that
+// dropped below the threshold keeps its version as an entry without quantity, so a late older event cannot
+// bring it back. Lookup responses carry no version and only fill entries no event has written yet.
+@Component
+@Slf4j
+public class InventoryAvailabilityCache {
+
+    private static final long UNVERSIONED = -1;
+
+    private final Cache<String, StockEntry> entries;
+
+    private final boolean enabled;
+
+    private final int lowStockThreshold;
+
+    public InventoryAvailabilityCache(@Value("${order.inventory-cache.enabled:true}") boolean enabled,
+                                      @Value("${order.inventory-cache.max-size:10000}") long maxSize,
+                                      @Value("${order.inventory-cache.ttl:30s}") Duration ttl,
+                                      @Value("${order.inventory-cache.low-stock-threshold:50}") int lowStockThreshold) {
+        this.enabled = enabled;
+        this.lowStockThreshold = lowStockThreshold;
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public boolean isAvailable(String skuCode, int requestedQuantity) {
+        if (!enabled) {
+            return false;
+        }
+
+        StockEntry entry = entries.getIfPresent(skuCode);
+        return entry != null && entry.quantity() != null && entry.quantity() - requestedQuantity >= lowStockThreshold;
+    }
+
+    public void update(InventoryResponse inventoryResponse) {
+        if (!enabled || inventoryResponse.getSkuCode() == null) {
+            return;
+        }
+
+        entries.asMap().compute(inventoryResponse.getSkuCode(), (skuCode, current) -> {
+            if (current != null && current.version() != UNVERSIONED) {
+                return current;
+            }
+            return aboveThreshold(inventoryResponse.getQuantity()) ? new StockEntry(inventoryResponse.getQuantity(), UNVERSIONED) : null;
+        });
+    }
+
+    @KafkaListener(topics = "inventoryStockChanged",
+            groupId = "${order.inventory-cache.group-id:order-service-inventory-cache}",
+            autoStartup = "${order.inventory-cache.enabled:true}")
+    public void onStockChanged(StockChangedEvent stockChangedEvent) {
+        log.debug("Stock of SKU {} changed to {} (version {})",
+                stockChangedEvent.getSkuCode(), stockChangedEvent.getQuantity(), stockChangedEvent.getVersion());
+        if (!enabled || stockChangedEvent.getSkuCode() == null) {
+            return;
+        }
+
+        long version = stockChangedEvent.getVersion() != null ? stockChangedEvent.getVersion() : UNVERSIONED;
+        Integer quantity = aboveThreshold(stockChangedEvent.getQuantity()) ? stockChangedEvent.getQuantity() : null;
+        entries.asMap().compute(stockChangedEvent.getSkuCode(), (skuCode, current) -> current != null && current.version() > version
+                ? current
+                : new StockEntry(quantity, version));
+    }
+
+    private boolean aboveThreshold(Integer quantity) {
+        return quantity != null && quantity >= lowStockThreshold;
+    }
+
+    // quantity is null when the SKU is below the threshold or gone
+    private record StockEntry(Integer quantity, long version) {
+    }
+}
@@ -0,0 +1,121 @@
+package me.fladoss.microservicesgamestore.order_service.client;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.netty.handler.codec.http2.Http2Exception;
+import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.order_service.codec.InventoryStockCodec;
+import me.fladoss.microservicesgamestore.order_service.dto.InventoryResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+// Looks up stock through inventory-service's binary endpoint over HTTP/2 (h2c). An inventory-service that cannot
+// serve it (no h2c, no endpoint, another codec version) is asked over the JSON REST endpoint instead, and the
+// binary path is skipped for the fallback cooldown rather than failing again on every call.
+@Component
+@Slf4j
+public class InventoryClient {
+
+    private static final MediaType INVENTORY_STOCK = MediaType.parseMediaType(InventoryStockCodec.MEDIA_TYPE);
+
+    // Malformed request (another codec version), no such endpoint, media type not accepted or not supported
+    private static final Set<Integer> PROTOCOL_ERROR_STATUSES = Set.of(400, 404, 406, 415);
+
+    private final WebClient restWebClient;
+
+    private final WebClient binaryWebClient;
+
+    private final Tracer tracer;
+
+    private final boolean binaryEnabled;
+
+    private final Duration fallbackCooldown;
+
+    private volatile long binaryRetryAt = System.nanoTime();
+
+    public InventoryClient(WebClient.Builder webClientBuilder,
+                           Tracer tracer,
+                           @Value("${order.inventory-client.binary.enabled:true}") boolean binaryEnabled,
+                           @Value("${order.inventory-client.binary.fallback-cooldown:5m}") Duration fallbackCooldown) {
+        this.restWebClient = webClientBuilder.build();
+        // clone() keeps the load balancer filter of the @LoadBalanced builder
+        this.binaryWebClient = webClientBuilder.clone()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create().protocol(HttpProtocol.H2C)))
+                .build();
+        this.tracer = tracer;
+        this.binaryEnabled = binaryEnabled;
+        this.fallbackCooldown = fallbackCooldown;
+    }
+
+    public CompletableFuture<List<InventoryResponse>> getInventory(List<String> skuCodes) {
+        Span span = tracer.nextSpan().name("inventory-service-observation");
+
+        try (Tracer.SpanInScope withSpan = tracer.withSpan(span.start())) {
+            Mono<List<InventoryResponse>> inventory = binaryEnabled && System.nanoTime() - binaryRetryAt >= 0
+                    ? getInventoryBinary(skuCodes).onErrorResume(InventoryClient::isProtocolError, throwable -> {
+                        binaryRetryAt = System.nanoTime() + fallbackCooldown.toNanos();
+                        log.warn("Binary inventory lookup not supported, using REST for {}: {}", fallbackCooldown, throwable.toString());
+                        return getInventoryRest(skuCodes);
+                    })
+                    : getInventoryRest(skuCodes);
+
+            return inventory
+                    .doFinally(signalType -> span.end())
+                    .toFuture();
+        }
+    }
+
+    // Errors that REST would not have: a 5xx or a timeout is left to the caller's retry and circuit breaker
+    private static boolean isProtocolError(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException responseException) {
+            return PROTOCOL_ERROR_STATUSES.contains(responseException.getStatusCode().value());
+        }
+        if (throwable instanceof UncheckedIOException) {
+            // The response did not decode
+            return true;
+        }
+        // h2c prior knowledge against a server that only speaks HTTP/1.1
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof Http2Exception) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Mono<List<InventoryResponse>> getInventoryBinary(List<String> skuCodes) {
+        return binaryWebClient.post()
+                .uri("http://inventory-service/api/inventory/internal/stock")
+                .contentType(INVENTORY_STOCK)
+                .accept(INVENTORY_STOCK)
+                .bodyValue(InventoryStockCodec.writeRequest(skuCodes))
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .defaultIfEmpty(new byte[0])
+                .map(InventoryStockCodec::readResponse);
+    }
+
+    private Mono<List<InventoryResponse>> getInventoryRest(List<String> skuCodes) {
+        return restWebClient.get()
+                .uri(
+                        "http://inventory-service/api/inventory",
+                        uriBuilder -> uriBuilder.queryParam("skuCode", skuCodes).build()
+                )
+                .retrieve()
+                .bodyToFlux(InventoryResponse.class)
+                .collectList();
+    }
+}
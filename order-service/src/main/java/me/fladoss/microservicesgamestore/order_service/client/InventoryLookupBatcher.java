@@ -0,0 +1,171 @@
+package me.fladoss.microservicesgamestore.order_service.client;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.order_service.dto.InventoryResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Collects SKU lookups from concurrent orders for a short window and sends them to inventory-service
+// as one request; callers asking for the same SKU inside a window share a single lookup
+@Component
+@Slf4j
+public class InventoryLookupBatcher {
+
+    private final InventoryClient inventoryClient;
+
+    private final boolean enabled;
+
+    private final long windowNanos;
+
+    private final int maxBatchSize;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "inventory-lookup-batcher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock = new Object();
+
+    private Map<String, CompletableFuture<InventoryResponse>> pending = new HashMap<>();
+
+    private ScheduledFuture<?> scheduledFlush;
+
+    private boolean closed;
+
+    public InventoryLookupBatcher(InventoryClient inventoryClient,
+                                  @Value("${order.inventory-batch.enabled:true}") boolean enabled,
+                                  @Value("${order.inventory-batch.window:2ms}") Duration window,
+                                  @Value("${order.inventory-batch.max-size:100}") int maxBatchSize) {
+        this.inventoryClient = inventoryClient;
+        this.enabled = enabled;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    // SKUs unknown to inventory-service are left out of the result, same as a direct lookup
+    public CompletableFuture<List<InventoryResponse>> getInventory(List<String> skuCodes) {
+        if (!enabled) {
+            return inventoryClient.getInventory(skuCodes);
+        }
+
+        List<CompletableFuture<InventoryResponse>> lookups = new ArrayList<>(skuCodes.size());
+        List<Map<String, CompletableFuture<InventoryResponse>>> fullBatches = new ArrayList<>();
+        boolean closedForBatching;
+
+        synchronized (lock) {
+            // Once shut down the scheduler takes no more flushes, so late callers go straight to inventory-service
+            closedForBatching = closed;
+
+            if (!closedForBatching) {
+                for (String skuCode : skuCodes) {
+                    lookups.add(pending.computeIfAbsent(skuCode, key -> new CompletableFuture<>()));
+
+                    if (pending.size() >= maxBatchSize) {
+                        fullBatches.add(drainPending());
+                    }
+                }
+
+                if (!pending.isEmpty() && scheduledFlush == null) {
+                    scheduledFlush = scheduler.schedule(this::flush, windowNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+        }
+
+        if (closedForBatching) {
+            return inventoryClient.getInventory(skuCodes);
+        }
+
+        fullBatches.forEach(this::send);
+
+        return CompletableFuture.allOf(lookups.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> lookups.stream()
+                        .map(CompletableFuture::join)
+                        .filter(Objects::nonNull)
+                        .toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Map<String, CompletableFuture<InventoryResponse>> batch;
+
+        synchronized (lock) {
+            closed = true;
+            batch = drainPending();
+        }
+
+        if (!batch.isEmpty()) {
+            send(batch);
+        }
+        scheduler.shutdown();
+    }
+
+    private void flush() {
+        Map<String, CompletableFuture<InventoryResponse>> batch;
+
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = drainPending();
+        }
+
+        send(batch);
+    }
+
+    // Must be called while holding the lock
+    private Map<String, CompletableFuture<InventoryResponse>> drainPending() {
+        Map<String, CompletableFuture<InventoryResponse>> batch = pending;
+        pending = new HashMap<>();
+
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+
+        return batch;
+    }
+
+    private void send(Map<String, CompletableFuture<InventoryResponse>> batch) {
+        log.debug("Looking up {} SKUs in one inventory request", batch.size());
+
+        CompletableFuture<List<InventoryResponse>> response;
+        try {
+            response = inventoryClient.getInventory(new ArrayList<>(batch.keySet()));
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+
+        response.whenComplete((inventoryResponseList, throwable) -> {
+            if (throwable != null) {
+                batch.values().forEach(lookup -> lookup.completeExceptionally(throwable));
+                return;
+            }
+
+            try {
+                Map<String, InventoryResponse> inventoryBySkuCode = inventoryResponseList.stream()
+                        .collect(Collectors.toMap(InventoryResponse::getSkuCode, Function.identity(), (first, second) -> first));
+
+                batch.forEach((skuCode, lookup) -> lookup.complete(inventoryBySkuCode.get(skuCode)));
+            } catch (RuntimeException e) {
+                // A malformed response must not leave the waiting orders hanging
+                batch.values().forEach(lookup -> lookup.completeExceptionally(e));
+            }
+        });
+    }
+}
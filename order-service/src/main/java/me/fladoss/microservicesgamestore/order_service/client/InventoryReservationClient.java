@@ -0,0 +1,64 @@
+package me.fladoss.microservicesgamestore.order_service.client;
+
+import me.fladoss.microservicesgamestore.order_service.dto.ReservationItem;
+import me.fladoss.microservicesgamestore.order_service.dto.ReservationRequest;
+import me.fladoss.microservicesgamestore.order_service.dto.ReservationResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+// inventory-service's reservation API: stock is taken off at reserve and handed back on release or when an
+// unconfirmed reservation expires
+@Component
+public class InventoryReservationClient {
+
+    private final WebClient webClient;
+
+    public InventoryReservationClient(WebClient.Builder webClientBuilder) {
+        this.webClient = webClientBuilder.build();
+    }
+
+    // Empty when some SKU lacks stock; nothing is reserved then
+    public CompletableFuture<Optional<String>> reserve(Map<String, Integer> quantities) {
+        ReservationRequest reservationRequest = ReservationRequest.builder()
+                .items(quantities.entrySet().stream()
+                        .map(entry -> new ReservationItem(entry.getKey(), entry.getValue()))
+                        .toList())
+                .build();
+
+        return webClient.post()
+                .uri("http://inventory-service/api/inventory/reservation")
+                .bodyValue(reservationRequest)
+                .exchangeToMono(response -> {
+                    if (HttpStatus.CONFLICT.equals(response.statusCode())) {
+                        return response.releaseBody().thenReturn(Optional.<String>empty());
+                    }
+                    if (response.statusCode().isError()) {
+                        return response.createError();
+                    }
+                    return response.bodyToMono(ReservationResponse.class).map(body -> Optional.of(body.getReservationId()));
+                })
+                .toFuture();
+    }
+
+    public CompletableFuture<Void> confirm(String reservationId) {
+        return post("http://inventory-service/api/inventory/reservation/{reservationId}/confirm", reservationId);
+    }
+
+    public CompletableFuture<Void> release(String reservationId) {
+        return post("http://inventory-service/api/inventory/reservation/{reservationId}/release", reservationId);
+    }
+
+    private CompletableFuture<Void> post(String uri, String reservationId) {
+        return webClient.post()
+                .uri(uri, reservationId)
+                .retrieve()
+                .toBodilessEntity()
+                .then()
+                .toFuture();
+    }
+}
@@ -0,0 +1,69 @@
+package me.fladoss.microservicesgamestore.order_service.codec;
+
+import me.fladoss.microservicesgamestore.order_service.dto.InventoryResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Binary format of inventory-service's internal stock lookup (see its InventoryStockCodec).
+// Request:  version byte, int count, count x UTF sku code
+// Response: version byte, int count, count x (UTF sku code, boolean has quantity, int quantity if it has one)
+public final class InventoryStockCodec {
+
+    public static final String MEDIA_TYPE = "application/x-inventory-stock";
+
+    private static final byte VERSION = 1;
+
+    private InventoryStockCodec() {
+    }
+
+    public static byte[] writeRequest(List<String> skuCodes) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(5 + skuCodes.size() * 32);
+            DataOutputStream output = new DataOutputStream(bytes);
+
+            output.writeByte(VERSION);
+            output.writeInt(skuCodes.size());
+            for (String skuCode : skuCodes) {
+                output.writeUTF(skuCode);
+            }
+
+            output.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to encode stock request", e);
+        }
+    }
+
+    public static List<InventoryResponse> readResponse(byte[] body) {
+        try {
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(body));
+
+            if (input.readByte() != VERSION) {
+                throw new IOException("Unsupported stock response version");
+            }
+
+            int count = input.readInt();
+            List<InventoryResponse> inventoryResponses = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                String skuCode = input.readUTF();
+                Integer quantity = input.readBoolean() ? input.readInt() : null;
+
+                inventoryResponses.add(InventoryResponse.builder()
+                        .skuCode(skuCode)
+                        .isInStock(quantity != null && quantity > 0)
+                        .quantity(quantity)
+                        .build());
+            }
+            return inventoryResponses;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to decode stock response", e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package me.fladoss.microservicesgamestore.order_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.ContextPropagatingTaskDecorator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class OrderPlacementConfig {
+
+    // JPA work of the placement pipeline runs here, so request threads are released while orders are saved
+    @Bean
+    public ThreadPoolTaskExecutor orderPersistenceExecutor(
+            @Value("${order.placement.persistence-pool-size:10}") int poolSize,
+            @Value("${order.placement.persistence-queue-capacity:1000}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("order-persistence-");
+        executor.setTaskDecorator(new ContextPropagatingTaskDecorator());
+        return executor;
+    }
+}
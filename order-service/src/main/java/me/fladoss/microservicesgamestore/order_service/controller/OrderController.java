@@ -1,17 +1,23 @@
 package me.fladoss.microservicesgamestore.order_service.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.order_service.dto.OrderPageResponse;
 import me.fladoss.microservicesgamestore.order_service.dto.OrderRequest;
 import me.fladoss.microservicesgamestore.order_service.dto.OrderResponse;
-import me.fladoss.microservicesgamestore.order_service.entity.Order;
 import me.fladoss.microservicesgamestore.order_service.service.OrderService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
 import java.net.URI;
-import java.util.List;
-import java.util.concurrent.ExecutionException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeoutException;
 
 @RestController
@@ -23,15 +29,30 @@ public class OrderController {
     private final OrderService orderService;
 
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
+    public ResponseEntity<OrderPageResponse> getOrders(
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdAfter,
+            @RequestParam(defaultValue = "20") int size) {
         try {
-            return ResponseEntity.ok(orderService.getAllOrders());
+            return ResponseEntity.ok(orderService.getOrders(afterId, createdAfter, size));
         } catch (RuntimeException e) {
-            log.error("Error while getting all orders", e);
+            log.error("Error while getting orders after id {}", afterId, e);
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    // Written on the request thread straight from a DB cursor, so the async request timeout does not apply
+    @GetMapping("/export")
+    public void exportOrders(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant createdAfter,
+            HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        orderService.exportOrders(createdAfter, response.getOutputStream());
+        response.flushBuffer();
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderResponse> getOrder(@PathVariable Long id) {
         try {
@@ -54,19 +75,32 @@ public class OrderController {
     }
 
     @PostMapping
-    public ResponseEntity<String> placeOrder(@RequestBody OrderRequest orderRequest) {
+    public CompletableFuture<ResponseEntity<String>> placeOrder(@RequestBody OrderRequest orderRequest) {
         try {
-            String result = orderService.placeOrder(orderRequest).get();
-            return ResponseEntity.created(URI.create("/api/order")).body(result);
-        } catch (ExecutionException | InterruptedException e) {
-            log.error("Error while executing placing of an order", e);
-            return ResponseEntity.internalServerError().body("Internal error while placing an order");
-        } catch (TimeoutException e) {
-            log.error("Timed out while placing an order", e);
-            return ResponseEntity.internalServerError().body("Timed out while placing an order. Try again later!");
+            return orderService.placeOrder(orderRequest)
+                    .thenApply(result -> ResponseEntity.created(URI.create("/api/order")).body(result))
+                    .exceptionally(this::placeOrderFailed);
         } catch (RuntimeException e) {
             log.error("Unexpected error while placing an order", e);
-            return ResponseEntity.internalServerError().body("Unexpected error while placing an order");
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.internalServerError().body("Unexpected error while placing an order"));
+        }
+    }
+
+    private ResponseEntity<String> placeOrderFailed(Throwable throwable) {
+        Throwable cause = throwable instanceof CompletionException ? throwable.getCause() : throwable;
+
+        if (cause instanceof ResponseStatusException responseStatusException) {
+            log.warn("Order was not placed: {}", responseStatusException.getMessage());
+            return ResponseEntity.status(responseStatusException.getStatusCode()).body(responseStatusException.getReason());
+        }
+
+        if (cause instanceof TimeoutException) {
+            log.error("Timed out while placing an order", cause);
+            return ResponseEntity.internalServerError().body("Timed out while placing an order. Try again later!");
         }
+
+        log.error("Error while executing placing of an order", cause);
+        return ResponseEntity.internalServerError().body("Internal error while placing an order");
     }
 }
@@ -0,0 +1,24 @@
+package me.fladoss.microservicesgamestore.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// An order line item flattened together with its order; line item fields are null for an order without items
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderLineItemRow {
+    private Long orderId;
+    private String orderNumber;
+    private Instant createdAt;
+    private Long lineItemId;
+    private String skuCode;
+    private BigDecimal price;
+    private Integer quantity;
+}
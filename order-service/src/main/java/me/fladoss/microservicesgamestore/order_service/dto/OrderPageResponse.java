@@ -0,0 +1,18 @@
+package me.fladoss.microservicesgamestore.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OrderPageResponse {
+    private List<OrderResponse> orders;
+    // Pass as afterId to get the next page; null on the last page
+    private Long nextAfterId;
+}
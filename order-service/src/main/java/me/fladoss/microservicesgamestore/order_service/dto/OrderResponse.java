@@ -4,8 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import me.fladoss.microservicesgamestore.order_service.entity.OrderLineItems;
 
+import java.time.Instant;
 import java.util.List;
 
 @Data
@@ -15,5 +15,6 @@ import java.util.List;
 public class OrderResponse {
     private Long id;
     private String orderNumber;
-    private List<OrderLineItems> orderLineItems;
+    private Instant createdAt;
+    private List<OrderLineItemsDto> orderLineItems;
 }
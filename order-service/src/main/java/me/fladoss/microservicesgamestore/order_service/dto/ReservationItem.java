@@ -0,0 +1,15 @@
+package me.fladoss.microservicesgamestore.order_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ReservationItem {
+    private String skuCode;
+    private Integer quantity;
+}
@@ -0,0 +1,33 @@
+package me.fladoss.microservicesgamestore.order_service.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "order_outbox")
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String topic;
+
+    @Column(name = "message_key")
+    private String messageKey;
+
+    private String payload;
+
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    // Set when the row could not be relayed; such rows stay for inspection and are skipped
+    @Column(name = "failed_at")
+    private Instant failedAt;
+}
@@ -0,0 +1,104 @@
+package me.fladoss.microservicesgamestore.order_service.loadbalancer;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Load of one service instance as seen by this client
+public class InstanceStats {
+
+    // Start times of the requests in flight, by request identity. The load balancer lifecycle gets no
+    // completion for a cancelled call, so an entry older than the in-flight timeout is expired as abandoned.
+    private final Map<RequestKey, Long> inFlight = new ConcurrentHashMap<>();
+
+    private final long inFlightTimeoutNanos;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    // EWMA of response times; negative until the first sample
+    private double latencyNanos = -1;
+
+    private long lastSampleMillis;
+
+    private volatile long ejectedUntilMillis;
+
+    public InstanceStats(long inFlightTimeoutNanos) {
+        this.inFlightTimeoutNanos = inFlightTimeoutNanos;
+    }
+
+    public int getInFlight() {
+        return inFlight.size();
+    }
+
+    // An idle instance whose last sample is older than decayAfter is treated as unknown again, so an
+    // instance that was slow once gets retried instead of being starved on a stale average
+    public synchronized double getLatencyNanos(long nowMillis, long decayAfterMillis) {
+        if (latencyNanos >= 0 && inFlight.isEmpty() && nowMillis - lastSampleMillis > decayAfterMillis) {
+            return -1;
+        }
+        return latencyNanos;
+    }
+
+    public boolean isEjected(long nowMillis) {
+        return nowMillis < ejectedUntilMillis;
+    }
+
+    void requestStarted(Object request) {
+        inFlight.put(new RequestKey(request), System.nanoTime());
+    }
+
+    // Returns the number of requests expired as abandoned
+    int expireAbandoned(long nowNanos) {
+        int expired = 0;
+        Iterator<Long> startTimes = inFlight.values().iterator();
+        while (startTimes.hasNext()) {
+            if (nowNanos - startTimes.next() > inFlightTimeoutNanos) {
+                startTimes.remove();
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    // Returns the start time of the request, null if it was never started or already expired as abandoned
+    Long requestFinished(Object request) {
+        return inFlight.remove(new RequestKey(request));
+    }
+
+    // A sample after a long gap starts the average over instead of being blended into a stale one
+    synchronized void recordLatency(long nanos, double weight, long nowMillis, long decayAfterMillis) {
+        latencyNanos = latencyNanos < 0 || nowMillis - lastSampleMillis > decayAfterMillis
+                ? nanos
+                : latencyNanos + weight * (nanos - latencyNanos);
+        lastSampleMillis = nowMillis;
+    }
+
+    void recordSuccess() {
+        consecutiveFailures.set(0);
+    }
+
+    // Returns true when this failure ejected the instance
+    boolean recordFailure(int failureThreshold, long ejectionMillis, long nowMillis) {
+        if (consecutiveFailures.incrementAndGet() < failureThreshold) {
+            return false;
+        }
+        consecutiveFailures.set(0);
+        ejectedUntilMillis = nowMillis + ejectionMillis;
+        return true;
+    }
+
+    // Lifecycle requests are matched by identity, whatever equals() their context defines
+    private record RequestKey(Object request) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RequestKey key && key.request == request;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(request);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package me.fladoss.microservicesgamestore.order_service.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Power of two choices: picks two random instances that are not ejected and sends the request to the one
+// with the lower expected wait, EWMA latency times (in-flight requests + 1). Instances without a recent
+// sample borrow the other candidate's latency, so they compete on in-flight requests alone. When every
+// instance is ejected the choice is made among all of them rather than failing the request.
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+
+    private final InstanceLoadTracker loadTracker;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    InstanceLoadTracker loadTracker) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.loadTracker = loadTracker;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+
+        return supplier.get(request)
+                .next()
+                .map(instances -> {
+                    ServiceInstance instance = choose(instances);
+                    return instance != null ? new DefaultResponse(instance) : new EmptyResponse();
+                });
+    }
+
+    ServiceInstance choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return null;
+        }
+
+        long nowMillis = System.currentTimeMillis();
+        List<ServiceInstance> candidates = instances.stream()
+                .filter(instance -> !loadTracker.statsOf(instance).isEjected(nowMillis))
+                .toList();
+        if (candidates.isEmpty()) {
+            candidates = instances;
+        }
+        if (candidates.size() == 1) {
+            return candidates.get(0);
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(candidates.size());
+        int second = random.nextInt(candidates.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        InstanceStats firstStats = loadTracker.statsOf(candidates.get(first));
+        InstanceStats secondStats = loadTracker.statsOf(candidates.get(second));
+        double firstLatency = firstStats.getLatencyNanos(nowMillis, loadTracker.getDecayAfterMillis());
+        double secondLatency = secondStats.getLatencyNanos(nowMillis, loadTracker.getDecayAfterMillis());
+        double fallbackLatency = Math.max(0, Math.max(firstLatency, secondLatency));
+
+        return cost(firstStats, firstLatency, fallbackLatency) <= cost(secondStats, secondLatency, fallbackLatency)
+                ? candidates.get(first)
+                : candidates.get(second);
+    }
+
+    private static double cost(InstanceStats stats, double latencyNanos, double fallbackLatencyNanos) {
+        double latency = latencyNanos >= 0 ? latencyNanos : fallbackLatencyNanos;
+        // +1 keeps in-flight requests deciding between instances with no latency known
+        return (latency + 1) * (stats.getInFlight() + 1);
+    }
+}
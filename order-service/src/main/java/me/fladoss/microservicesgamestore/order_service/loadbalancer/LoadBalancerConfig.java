@@ -0,0 +1,28 @@
+package me.fladoss.microservicesgamestore.order_service.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+// order.load-balancer.strategy=latency-aware (default) replaces round robin for every @LoadBalanced call;
+// round-robin restores Spring Cloud's default.
+// The other classes of this package are kept identical to api-gateway's copy apart from the package name.
+@Configuration
+@ConditionalOnProperty(name = "order.load-balancer.strategy", havingValue = "latency-aware", matchIfMissing = true)
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LoadBalancerConfig {
+
+    // Lives in the main context: shared by the load balancers of all services and found by their request lifecycle
+    @Bean
+    public InstanceLoadTracker instanceLoadTracker(@Value("${order.load-balancer.ewma-weight:0.3}") double ewmaWeight,
+                                                   @Value("${order.load-balancer.decay-after:10s}") Duration decayAfter,
+                                                   @Value("${order.load-balancer.failure-threshold:5}") int failureThreshold,
+                                                   @Value("${order.load-balancer.ejection:30s}") Duration ejection,
+                                                   @Value("${order.load-balancer.in-flight-timeout:10s}") Duration inFlightTimeout) {
+        return new InstanceLoadTracker(ewmaWeight, decayAfter, failureThreshold, ejection, inFlightTimeout);
+    }
+}
@@ -1,9 +1,52 @@
 package me.fladoss.microservicesgamestore.order_service.repository;
 
+import jakarta.persistence.QueryHint;
+import me.fladoss.microservicesgamestore.order_service.dto.OrderLineItemRow;
 import me.fladoss.microservicesgamestore.order_service.entity.Order;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    @Query("SELECT o.id FROM Order o WHERE o.id > :afterId AND o.createdAt > :createdAfter ORDER BY o.id")
+    List<Long> findPageIds(@Param("afterId") Long afterId, @Param("createdAfter") Instant createdAfter, Pageable pageable);
+
+    @Query("""
+            SELECT new me.fladoss.microservicesgamestore.order_service.dto.OrderLineItemRow(
+                o.id, o.orderNumber, o.createdAt, li.id, li.skuCode, li.price, li.quantity)
+            FROM Order o LEFT JOIN o.orderLineItems li
+            WHERE o.id = :id
+            ORDER BY li.id
+            """)
+    List<OrderLineItemRow> findRowsByOrderId(@Param("id") Long id);
+
+    @Query("""
+            SELECT new me.fladoss.microservicesgamestore.order_service.dto.OrderLineItemRow(
+                o.id, o.orderNumber, o.createdAt, li.id, li.skuCode, li.price, li.quantity)
+            FROM Order o LEFT JOIN o.orderLineItems li
+            WHERE o.id IN :ids
+            ORDER BY o.id, li.id
+            """)
+    List<OrderLineItemRow> findRowsByOrderIdIn(@Param("ids") List<Long> ids);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("""
+            SELECT new me.fladoss.microservicesgamestore.order_service.dto.OrderLineItemRow(
+                o.id, o.orderNumber, o.createdAt, li.id, li.skuCode, li.price, li.quantity)
+            FROM Order o LEFT JOIN o.orderLineItems li
+            WHERE o.createdAt > :createdAfter
+            ORDER BY o.id, li.id
+            """)
+    Stream<OrderLineItemRow> streamRows(@Param("createdAfter") Instant createdAfter);
 }
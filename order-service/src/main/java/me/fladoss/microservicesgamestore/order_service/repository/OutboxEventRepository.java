@@ -0,0 +1,20 @@
+package me.fladoss.microservicesgamestore.order_service.repository;
+
+import me.fladoss.microservicesgamestore.order_service.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // only one relay drains the outbox at a time, which keeps events of the same order in insertion order
+    @Query(value = "SELECT pg_try_advisory_xact_lock(:lockKey)", nativeQuery = true)
+    boolean tryRelayLock(@Param("lockKey") long lockKey);
+
+    @Query(value = "SELECT * FROM order_outbox WHERE failed_at IS NULL ORDER BY id LIMIT :batchSize", nativeQuery = true)
+    List<OutboxEvent> findNextBatch(@Param("batchSize") int batchSize);
+}
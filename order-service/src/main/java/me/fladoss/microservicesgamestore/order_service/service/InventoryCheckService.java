@@ -0,0 +1,103 @@
+package me.fladoss.microservicesgamestore.order_service.service;
+
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.order_service.cache.InventoryAvailabilityCache;
+import me.fladoss.microservicesgamestore.order_service.client.InventoryLookupBatcher;
+import me.fladoss.microservicesgamestore.order_service.client.InventoryReservationClient;
+import me.fladoss.microservicesgamestore.order_service.dto.InventoryResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// The remote half of order placement, and the only part wrapped in the inventory circuit breaker, time limiter
+// and retry. The availability check turns down orders for sold-out SKUs without touching the stock rows;
+// the reservation then holds the stock until the order is saved (confirm) or fails (release).
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class InventoryCheckService {
+
+    private final InventoryLookupBatcher inventoryLookupBatcher;
+
+    private final InventoryAvailabilityCache inventoryAvailabilityCache;
+
+    private final InventoryReservationClient inventoryReservationClient;
+
+    // SKUs with plenty of stock in the near-cache are answered locally, only the rest go to inventory-service
+    @CircuitBreaker(name = "inventory", fallbackMethod = "fallbackCheckInventory")
+    @TimeLimiter(name = "inventory")
+    @Retry(name = "inventory")
+    public CompletableFuture<Boolean> checkInventory(Map<String, Integer> requestedQuantities) {
+        List<String> remoteSkuCodes = requestedQuantities.entrySet().stream()
+                .filter(entry -> !inventoryAvailabilityCache.isAvailable(entry.getKey(), entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+
+        if (remoteSkuCodes.isEmpty()) {
+            return CompletableFuture.completedFuture(true);
+        }
+
+        return inventoryLookupBatcher.getInventory(remoteSkuCodes)
+                .thenApply(inventoryResponseList -> {
+                    inventoryResponseList.forEach(inventoryAvailabilityCache::update);
+
+                    Map<String, InventoryResponse> inventoryBySkuCode = inventoryResponseList.stream()
+                            .collect(Collectors.toMap(InventoryResponse::getSkuCode, Function.identity(), (first, second) -> first));
+
+                    return remoteSkuCodes.stream()
+                            .allMatch(skuCode -> isInStock(inventoryBySkuCode.get(skuCode), requestedQuantities.get(skuCode)));
+                });
+    }
+
+    // Empty when some SKU lacks stock. Not retried: a reserve that timed out may still have taken the stock and a
+    // retry would take it twice; such a reservation is never confirmed and expires in inventory-service.
+    @CircuitBreaker(name = "inventory", fallbackMethod = "fallbackReserveInventory")
+    @TimeLimiter(name = "inventory")
+    public CompletableFuture<Optional<String>> reserveInventory(Map<String, Integer> requestedQuantities) {
+        return inventoryReservationClient.reserve(requestedQuantities);
+    }
+
+    // Retried, confirming is idempotent: left unconfirmed, the reservation would hand the stock back when it expires
+    @Retry(name = "inventory")
+    public CompletableFuture<Void> confirmReservation(String reservationId) {
+        return inventoryReservationClient.confirm(reservationId);
+    }
+
+    // Best effort, an unreleased reservation expires in inventory-service
+    public CompletableFuture<Void> releaseReservation(String reservationId) {
+        return inventoryReservationClient.release(reservationId);
+    }
+
+    private boolean isInStock(InventoryResponse inventoryResponse, int requestedQuantity) {
+        if (inventoryResponse == null) {
+            return false;
+        }
+
+        return inventoryResponse.getQuantity() != null
+                ? inventoryResponse.getQuantity() >= requestedQuantity
+                : inventoryResponse.isInStock();
+    }
+
+    private CompletableFuture<Boolean> fallbackCheckInventory(Map<String, Integer> requestedQuantities, Throwable throwable) {
+        log.error("Inventory check failed for SKUs {}", requestedQuantities.keySet(), throwable);
+        return CompletableFuture.failedFuture(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Inventory is unavailable, try again later", throwable));
+    }
+
+    private CompletableFuture<Optional<String>> fallbackReserveInventory(Map<String, Integer> requestedQuantities, Throwable throwable) {
+        log.error("Inventory reservation failed for SKUs {}", requestedQuantities.keySet(), throwable);
+        return CompletableFuture.failedFuture(
+                new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Inventory is unavailable, try again later", throwable));
+    }
+}
@@ -0,0 +1,6 @@
+package me.fladoss.microservicesgamestore.order_service.service;
+
+public interface OrderNumberGenerator {
+
+    String nextOrderNumber();
+}
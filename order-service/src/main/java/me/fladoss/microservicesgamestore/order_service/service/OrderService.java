@@ -1,66 +1,127 @@
 package me.fladoss.microservicesgamestore.order_service.service;
 
-import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
-import io.github.resilience4j.retry.annotation.Retry;
-import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
-import io.micrometer.tracing.Span;
-import io.micrometer.tracing.Tracer;
-import jakarta.transaction.Transactional;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import me.fladoss.microservicesgamestore.order_service.dto.InventoryResponse;
+import me.fladoss.microservicesgamestore.order_service.dto.OrderLineItemRow;
 import me.fladoss.microservicesgamestore.order_service.dto.OrderLineItemsDto;
+import me.fladoss.microservicesgamestore.order_service.dto.OrderPageResponse;
 import me.fladoss.microservicesgamestore.order_service.dto.OrderRequest;
 import me.fladoss.microservicesgamestore.order_service.dto.OrderResponse;
 import me.fladoss.microservicesgamestore.order_service.entity.Order;
 import me.fladoss.microservicesgamestore.order_service.entity.OrderLineItems;
+import me.fladoss.microservicesgamestore.order_service.entity.OutboxEvent;
 import me.fladoss.microservicesgamestore.order_service.event.OrderPlacedEvent;
 import me.fladoss.microservicesgamestore.order_service.repository.OrderRepository;
+import me.fladoss.microservicesgamestore.order_service.repository.OutboxEventRepository;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
-import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.server.ResponseStatusException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeoutException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
 
-    private final WebClient.Builder webClientBuilder;
+    private final InventoryCheckService inventoryCheckService;
+
+    private final OrderNumberGenerator orderNumberGenerator;
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Executor orderPersistenceExecutor;
 
-    private final Tracer tracer;
+    // Keyset page: ids are selected first so the limit counts orders, not joined line item rows
+    @Transactional(readOnly = true)
+    public OrderPageResponse getOrders(Long afterId, Instant createdAfter, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
 
-    private final KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate;
+        List<Long> ids = orderRepository.findPageIds(
+                afterId != null ? afterId : Long.MIN_VALUE,
+                createdAfter != null ? createdAfter : Instant.EPOCH,
+                PageRequest.of(0, pageSize));
 
-    public List<Order> getAllOrders() {
-        return orderRepository.findAll();
+        List<OrderResponse> orders = ids.isEmpty()
+                ? List.of()
+                : mapToOrderResponses(orderRepository.findRowsByOrderIdIn(ids));
+
+        return OrderPageResponse.builder()
+                .orders(orders)
+                .nextAfterId(ids.size() == pageSize ? ids.get(ids.size() - 1) : null)
+                .build();
     }
 
+    // DTO projection of the order and its items in one query, nothing is loaded into the persistence context
+    @Transactional(readOnly = true)
     public OrderResponse getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        return mapToOrderResponses(orderRepository.findRowsByOrderId(id)).stream()
+                .findFirst()
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND));
+    }
 
-        return OrderResponse.builder()
-                .id(id)
-                .orderNumber(order.getOrderNumber())
-                .orderLineItems(order.getOrderLineItems())
-                .build();
+    // Writes one NDJSON line per order while reading its rows from a server-side cursor; the rows come
+    // ordered by order id, so only the order being assembled is held in memory, whatever the history size
+    public void exportOrders(Instant createdAfter, OutputStream outputStream) {
+        TransactionTemplate readOnlyTransactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnlyTransactionTemplate.setReadOnly(true);
+
+        ObjectWriter orderWriter = objectMapper.writerFor(OrderResponse.class);
+
+        readOnlyTransactionTemplate.executeWithoutResult(status -> {
+            try (Stream<OrderLineItemRow> rows = orderRepository.streamRows(createdAfter != null ? createdAfter : Instant.EPOCH)) {
+                Iterator<OrderLineItemRow> iterator = rows.iterator();
+                OrderResponse current = null;
+
+                while (iterator.hasNext()) {
+                    OrderLineItemRow row = iterator.next();
+                    if (current == null || !current.getId().equals(row.getOrderId())) {
+                        if (current != null) {
+                            writeExportLine(orderWriter, current, outputStream);
+                        }
+                        current = toOrderResponse(row);
+                    }
+                    addLineItem(current, row);
+                }
+
+                if (current != null) {
+                    writeExportLine(orderWriter, current, outputStream);
+                }
+            }
+        });
     }
 
-    @CircuitBreaker(name = "inventory", fallbackMethod = "fallbackPlaceOrder")
-    @TimeLimiter(name = "inventory")
-    @Retry(name = "inventory")
-    public CompletableFuture<String> placeOrder(OrderRequest orderRequest) throws TimeoutException {
+    // No transaction around the whole pipeline: the inventory call runs on the WebClient event loop
+    // and only the save step borrows a JDBC connection, on the persistence executor.
+    // The save is deliberately outside the inventory time limiter and retry: a slow save must not be
+    // abandoned while it still commits, nor repeated under a new order number.
+    public CompletableFuture<String> placeOrder(OrderRequest orderRequest) {
         Order order = new Order();
-        order.setOrderNumber(UUID.randomUUID().toString());
+        order.setOrderNumber(orderNumberGenerator.nextOrderNumber());
 
         List<OrderLineItems> orderLineItems = orderRequest.getOrderLineItemsDto()
                 .stream()
@@ -72,53 +133,115 @@ public class OrderService {
             orderLineItem.setOrder(order);
         }
 
-        List<String> skuCodes = order.getOrderLineItems().stream().map(OrderLineItems::getSkuCode).toList();
+        Map<String, Integer> requestedQuantities = order.getOrderLineItems().stream()
+                .collect(Collectors.toMap(
+                        OrderLineItems::getSkuCode,
+                        orderLineItem -> orderLineItem.getQuantity() != null ? orderLineItem.getQuantity() : 1,
+                        Integer::sum));
+
+        return inventoryCheckService.checkInventory(requestedQuantities)
+                .thenCompose(allMatch -> {
+                    if (!allMatch) {
+                        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not in stock");
+                    }
+
+                    return inventoryCheckService.reserveInventory(requestedQuantities);
+                })
+                .thenApplyAsync(reservationId -> saveOrder(order, reservationId
+                        .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Not in stock"))), orderPersistenceExecutor);
+    }
 
-        Span span = tracer.nextSpan().name("inventory-service-observation");
+    @Transactional
+    public void deleteOrder(Long id) {
 
-        try (Tracer.SpanInScope withSpan = tracer.withSpan(span.start())) {
-            List<InventoryResponse> inventoryResponseList = webClientBuilder.build()
-                    .get()
-                    .uri(
-                            "http://inventory-service/api/inventory",
-                            uriBuilder -> uriBuilder.queryParam("skuCode", skuCodes).build()
-                    )
-                    .retrieve()
-                    .bodyToFlux(InventoryResponse.class)
-                    .collectList()
-                    .block();
+        if (!orderRepository.existsById(id)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+        }
 
-            if (inventoryResponseList == null) {
-                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "inventoryResponseList is null");
-            }
+        orderRepository.deleteById(id);
+    }
 
-            boolean allMatch = inventoryResponseList.stream()
-                    .allMatch(InventoryResponse::isInStock);
-
-            if (allMatch) {
-                try {
-                    orderRepository.save(order);
-                    kafkaTemplate.send("orderServiceNotification", new OrderPlacedEvent(order.getOrderNumber()));
-                    return CompletableFuture.completedFuture("Order placed successfully :)");
-                } catch (RuntimeException e) {
-                    log.error("Error saving order with id: {}", order.getId(), e);
-                    return CompletableFuture.completedFuture("Internal error occurred while saving order :(");
-                } finally {
-                    span.end();
-                }
-            } else {
-                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Not in stock");
+    // The event is written to the outbox in the same transaction as the order and relayed to Kafka by OutboxRelay.
+    // The reservation is confirmed once the order is committed and released if it is not.
+    private String saveOrder(Order order, String reservationId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                orderRepository.save(order);
+                outboxEventRepository.save(toOutboxEvent(new OrderPlacedEvent(order.getOrderNumber())));
+            });
+        } catch (RuntimeException e) {
+            log.error("Error saving order {}", order.getOrderNumber(), e);
+            inventoryCheckService.releaseReservation(reservationId).exceptionally(throwable -> {
+                log.warn("Unable to release reservation {}, it is released when it expires", reservationId, throwable);
+                return null;
+            });
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Error saving order", e);
+        }
+
+        inventoryCheckService.confirmReservation(reservationId).exceptionally(throwable -> {
+            log.error("Unable to confirm reservation {} of order {}", reservationId, order.getOrderNumber(), throwable);
+            return null;
+        });
+        return "Order placed successfully :)";
+    }
+
+    private void writeExportLine(ObjectWriter orderWriter, OrderResponse orderResponse, OutputStream outputStream) {
+        try {
+            outputStream.write(orderWriter.writeValueAsBytes(orderResponse));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to write order export line", e);
+        }
+    }
+
+    // Rows arrive ordered by order id, so each order's rows are adjacent
+    private List<OrderResponse> mapToOrderResponses(List<OrderLineItemRow> rows) {
+        List<OrderResponse> orderResponses = new ArrayList<>();
+        OrderResponse current = null;
+
+        for (OrderLineItemRow row : rows) {
+            if (current == null || !current.getId().equals(row.getOrderId())) {
+                current = toOrderResponse(row);
+                orderResponses.add(current);
             }
+            addLineItem(current, row);
         }
+
+        return orderResponses;
     }
 
-    public void deleteOrder(Long id) {
+    private OrderResponse toOrderResponse(OrderLineItemRow row) {
+        return OrderResponse.builder()
+                .id(row.getOrderId())
+                .orderNumber(row.getOrderNumber())
+                .createdAt(row.getCreatedAt())
+                .orderLineItems(new ArrayList<>())
+                .build();
+    }
 
-        if (!orderRepository.existsById(id)) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND);
+    // An order without items comes back as a single row with null line item fields
+    private void addLineItem(OrderResponse orderResponse, OrderLineItemRow row) {
+        if (row.getLineItemId() != null) {
+            orderResponse.getOrderLineItems().add(OrderLineItemsDto.builder()
+                    .id(row.getLineItemId())
+                    .skuCode(row.getSkuCode())
+                    .price(row.getPrice())
+                    .quantity(row.getQuantity())
+                    .build());
         }
+    }
 
-        orderRepository.deleteById(id);
+    private OutboxEvent toOutboxEvent(OrderPlacedEvent orderPlacedEvent) {
+        try {
+            return OutboxEvent.builder()
+                    .topic("orderServiceNotification")
+                    .messageKey(orderPlacedEvent.getOrderNumber())
+                    .payload(objectMapper.writeValueAsString(orderPlacedEvent))
+                    .createdAt(Instant.now())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize OrderPlacedEvent", e);
+        }
     }
 
     private OrderLineItems mapToObjectLineItems(OrderLineItemsDto orderLineItemsDto) {
@@ -128,9 +251,4 @@ public class OrderService {
                 .quantity(orderLineItemsDto.getQuantity())
                 .build();
     }
-
-    private CompletableFuture<String> fallbackPlaceOrder(OrderRequest orderRequest, Throwable throwable) {
-        log.error("Fallback method is called now for order with items: ({}); in placeOrder method: {}", orderRequest.getOrderLineItemsDto(), throwable.getStackTrace());
-        return CompletableFuture.completedFuture("Internal error occurred while placing order :( \n");
-    }
 }
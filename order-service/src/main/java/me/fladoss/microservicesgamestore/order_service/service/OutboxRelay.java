@@ -0,0 +1,111 @@
+package me.fladoss.microservicesgamestore.order_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.order_service.entity.OutboxEvent;
+import me.fladoss.microservicesgamestore.order_service.event.OrderPlacedEvent;
+import me.fladoss.microservicesgamestore.order_service.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Drains order_outbox to Kafka in batches; rows are deleted only after the broker acknowledged the whole batch.
+// A row whose payload cannot be read would fail every batch, so it is marked failed and left in the table instead.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private static final long RELAY_LOCK_KEY = "order_outbox_relay".hashCode();
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${order.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${order.outbox.send-timeout:10s}")
+    private Duration sendTimeout;
+
+    @Scheduled(fixedDelayString = "${order.outbox.linger:200ms}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == batchSize);
+        } catch (RuntimeException e) {
+            log.error("Error relaying outbox events, will retry", e);
+        }
+    }
+
+    private int relayBatch() {
+        if (!outboxEventRepository.tryRelayLock(RELAY_LOCK_KEY)) {
+            return 0;
+        }
+
+        List<OutboxEvent> batch = outboxEventRepository.findNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<OutboxEvent> relayed = new ArrayList<>(batch.size());
+        List<CompletableFuture<?>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            OrderPlacedEvent payload = readPayload(event);
+            if (payload == null) {
+                event.setFailedAt(Instant.now());
+                continue;
+            }
+
+            sends.add(kafkaTemplate.send(event.getTopic(), event.getMessageKey(), payload));
+            relayed.add(event);
+        }
+
+        awaitAcknowledgements(sends.toArray(CompletableFuture[]::new));
+
+        outboxEventRepository.deleteAllInBatch(relayed);
+
+        log.debug("Relayed {} outbox events", relayed.size());
+        return batch.size();
+    }
+
+    private void awaitAcknowledgements(CompletableFuture<?>[] sends) {
+        try {
+            CompletableFuture.allOf(sends).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for Kafka acknowledgements", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new IllegalStateException("Kafka did not acknowledge outbox batch", e);
+        }
+    }
+
+    // null when the payload is unreadable
+    private OrderPlacedEvent readPayload(OutboxEvent event) {
+        try {
+            return objectMapper.readValue(event.getPayload(), OrderPlacedEvent.class);
+        } catch (JsonProcessingException e) {
+            log.error("Unreadable outbox payload with id {}, marking it failed", event.getId(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package me.fladoss.microservicesgamestore.order_service.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+// ULID order numbers: 48-bit millisecond timestamp + 80 random bits, 26 Crockford base32 characters.
+// Numbers sort lexicographically in creation order, so inserts land at the right edge of the unique index
+// and order_number can be used as a paging key. Within one millisecond the random part is incremented,
+// which keeps the sequence strictly monotonic; the state is swapped with a CAS instead of a lock.
+@Component
+@ConditionalOnProperty(name = "order.number.generator", havingValue = "ulid", matchIfMissing = true)
+public class UlidOrderNumberGenerator implements OrderNumberGenerator {
+
+    private static final char[] ENCODING = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private static final int LENGTH = 26;
+
+    private static final long RANDOM_HIGH_MASK = 0xFFFFL;
+
+    private final AtomicReference<State> lastState = new AtomicReference<>(new State(0, 0, 0));
+
+    @Override
+    public String nextOrderNumber() {
+        while (true) {
+            State previous = lastState.get();
+            State next = nextState(previous, System.currentTimeMillis());
+
+            if (lastState.compareAndSet(previous, next)) {
+                return encode(next);
+            }
+        }
+    }
+
+    private static State nextState(State previous, long now) {
+        if (now > previous.timestamp) {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return new State(now, random.nextLong() & RANDOM_HIGH_MASK, random.nextLong());
+        }
+
+        // Same millisecond (or the clock went back): increment the 80-bit random part,
+        // spilling into the next millisecond if it is exhausted
+        long randomLow = previous.randomLow + 1;
+        long randomHigh = previous.randomHigh;
+        long timestamp = previous.timestamp;
+
+        if (randomLow == 0) {
+            randomHigh = (randomHigh + 1) & RANDOM_HIGH_MASK;
+            if (randomHigh == 0) {
+                timestamp++;
+            }
+        }
+
+        return new State(timestamp, randomHigh, randomLow);
+    }
+
+    private static String encode(State state) {
+        long mostSignificant = (state.timestamp << 16) | state.randomHigh;
+        long leastSignificant = state.randomLow;
+
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ENCODING[(int) (leastSignificant & 0x1F)];
+            leastSignificant = (leastSignificant >>> 5) | (mostSignificant << 59);
+            mostSignificant >>>= 5;
+        }
+
+        return new String(chars);
+    }
+
+    private record State(long timestamp, long randomHigh, long randomLow) {
+    }
+}
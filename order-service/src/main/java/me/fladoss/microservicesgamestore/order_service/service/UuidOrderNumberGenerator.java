@@ -0,0 +1,17 @@
+package me.fladoss.microservicesgamestore.order_service.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+// Previous behaviour: random, unordered 36-character order numbers
+@Component
+@ConditionalOnProperty(name = "order.number.generator", havingValue = "uuid")
+public class UuidOrderNumberGenerator implements OrderNumberGenerator {
+
+    @Override
+    public String nextOrderNumber() {
+        return UUID.randomUUID().toString();
+    }
+}
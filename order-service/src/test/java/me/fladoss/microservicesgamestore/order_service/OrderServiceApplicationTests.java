@@ -4,16 +4,21 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import me.fladoss.microservicesgamestore.order_service.dto.OrderLineItemsDto;
 import me.fladoss.microservicesgamestore.order_service.dto.OrderRequest;
+import me.fladoss.microservicesgamestore.order_service.service.InventoryCheckService;
 import me.fladoss.microservicesgamestore.order_service.service.OrderService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.testcontainers.containers.PostgreSQLContainer;
@@ -22,6 +27,8 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 import org.testcontainers.utility.DockerImageName;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @SpringBootTest
 @Testcontainers
@@ -41,6 +48,7 @@ class OrderServiceApplicationTests {
         registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
         registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
         registry.add("spring.liquibase.change-log", () -> "classpath:/db/changelog/liquibase_order.changelog-test.yaml");
+        registry.add("order.inventory-cache.enabled", () -> "false");
     }
 
     @Autowired
@@ -52,16 +60,43 @@ class OrderServiceApplicationTests {
     @Autowired
     private OrderService orderService;
 
+    // No inventory-service in this test
+    @MockBean
+    private InventoryCheckService inventoryCheckService;
+
     @Test
     void shouldCreateOrder() throws Exception {
+        Mockito.when(inventoryCheckService.checkInventory(ArgumentMatchers.anyMap())).thenReturn(CompletableFuture.completedFuture(true));
+        Mockito.when(inventoryCheckService.reserveInventory(ArgumentMatchers.anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of("reservation")));
+        Mockito.when(inventoryCheckService.confirmReservation("reservation")).thenReturn(CompletableFuture.completedFuture(null));
         OrderRequest orderRequest = getOrderRequest();
 
         String orderRequestString = objectMapper.writeValueAsString(orderRequest);
 
-        mockMvc.perform(MockMvcRequestBuilders.post("/api/order")
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.post("/api/order")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(orderRequestString))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
                 .andExpect(MockMvcResultMatchers.status().isCreated());
+        Mockito.verify(inventoryCheckService).confirmReservation("reservation");
+    }
+
+    @Test
+    void shouldRejectOrderNotInStock() throws Exception {
+        Mockito.when(inventoryCheckService.checkInventory(ArgumentMatchers.anyMap())).thenReturn(CompletableFuture.completedFuture(false));
+
+        MvcResult mvcResult = mockMvc.perform(MockMvcRequestBuilders.post("/api/order")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(getOrderRequest())))
+                .andExpect(MockMvcResultMatchers.request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(mvcResult))
+                .andExpect(MockMvcResultMatchers.status().isNotFound());
     }
 
     @Test
@@ -74,9 +109,10 @@ class OrderServiceApplicationTests {
 
     @Test
     void shouldGetAllOrders() throws Exception {
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/order"))
-                .andExpect(MockMvcResultMatchers.status().isOk());
-        Assertions.assertTrue(orderService.getAllOrders().size() > 1);
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/order").param("size", "100"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.orders").isArray());
+        Assertions.assertTrue(orderService.getOrders(null, null, 100).getOrders().size() > 1);
     }
 
     private OrderRequest getOrderRequest() {
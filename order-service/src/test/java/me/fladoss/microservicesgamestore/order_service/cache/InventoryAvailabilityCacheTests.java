@@ -0,0 +1,77 @@
+package me.fladoss.microservicesgamestore.order_service.cache;
+
+import me.fladoss.microservicesgamestore.order_service.dto.InventoryResponse;
+import me.fladoss.microservicesgamestore.order_service.event.StockChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+class InventoryAvailabilityCacheTests {
+
+    private static final String SKU_CODE = "GAME_PC-The_Talos_Principle";
+
+    private final InventoryAvailabilityCache inventoryAvailabilityCache =
+            new InventoryAvailabilityCache(true, 100, Duration.ofMinutes(1), 50);
+
+    @Test
+    void shouldOnlyAnswerAboveLowStockThreshold() {
+        inventoryAvailabilityCache.update(new InventoryResponse(SKU_CODE, true, 60));
+
+        Assertions.assertTrue(inventoryAvailabilityCache.isAvailable(SKU_CODE, 10));
+        Assertions.assertFalse(inventoryAvailabilityCache.isAvailable(SKU_CODE, 11));
+    }
+
+    @Test
+    void shouldNotCacheLowStock() {
+        inventoryAvailabilityCache.update(new InventoryResponse(SKU_CODE, true, 49));
+
+        Assertions.assertFalse(inventoryAvailabilityCache.isAvailable(SKU_CODE, 1));
+    }
+
+    @Test
+    void shouldInvalidateWhenStockDropsBelowThreshold() {
+        inventoryAvailabilityCache.onStockChanged(new StockChangedEvent(SKU_CODE, 100, 100, 1L));
+        Assertions.assertTrue(inventoryAvailabilityCache.isAvailable(SKU_CODE, 1));
+
+        inventoryAvailabilityCache.onStockChanged(new StockChangedEvent(SKU_CODE, 20, -80, 2L));
+        Assertions.assertFalse(inventoryAvailabilityCache.isAvailable(SKU_CODE, 1));
+
+        inventoryAvailabilityCache.onStockChanged(new StockChangedEvent(SKU_CODE, null, -20, 3L));
+        Assertions.assertFalse(inventoryAvailabilityCache.isAvailable(SKU_CODE, 1));
+    }
+
+    @Test
+    void shouldIgnoreOlderStockChanges() {
+        inventoryAvailabilityCache.onStockChanged(new StockChangedEvent(SKU_CODE, 100, 100, 5L));
+        inventoryAvailabilityCache.onStockChanged(new StockChangedEvent(SKU_CODE, 10, -90, 4L));
+
+        Assertions.assertTrue(inventoryAvailabilityCache.isAvailable(SKU_CODE, 50));
+    }
+
+    @Test
+    void shouldNotBringBackInvalidatedSkuWithOlderChange() {
+        inventoryAvailabilityCache.onStockChanged(new StockChangedEvent(SKU_CODE, 10, -90, 5L));
+        inventoryAvailabilityCache.onStockChanged(new StockChangedEvent(SKU_CODE, 100, 0, 4L));
+
+        Assertions.assertFalse(inventoryAvailabilityCache.isAvailable(SKU_CODE, 1));
+    }
+
+    @Test
+    void shouldNotOverwriteStockChangeWithLookup() {
+        inventoryAvailabilityCache.onStockChanged(new StockChangedEvent(SKU_CODE, 10, -90, 5L));
+        // A lookup answered before that change, applied after it
+        inventoryAvailabilityCache.update(new InventoryResponse(SKU_CODE, true, 100));
+
+        Assertions.assertFalse(inventoryAvailabilityCache.isAvailable(SKU_CODE, 1));
+    }
+
+    @Test
+    void shouldNotAnswerWhenDisabled() {
+        InventoryAvailabilityCache disabledCache = new InventoryAvailabilityCache(false, 100, Duration.ofMinutes(1), 50);
+
+        disabledCache.update(new InventoryResponse(SKU_CODE, true, 100));
+
+        Assertions.assertFalse(disabledCache.isAvailable(SKU_CODE, 1));
+    }
+}
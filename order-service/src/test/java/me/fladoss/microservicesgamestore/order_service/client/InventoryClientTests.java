@@ -0,0 +1,94 @@
+package me.fladoss.microservicesgamestore.order_service.client;
+
+import io.micrometer.tracing.Tracer;
+import me.fladoss.microservicesgamestore.order_service.dto.InventoryResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+class InventoryClientTests {
+
+    private final List<HttpMethod> calls = new ArrayList<>();
+
+    @Test
+    void shouldFallBackToRestWhenBinaryLookupIsNotSupported() {
+        // An inventory-service without the binary endpoint, or speaking another codec version
+        InventoryClient inventoryClient = inventoryClient(ClientResponse.create(HttpStatus.UNSUPPORTED_MEDIA_TYPE).build(), Duration.ofMinutes(5));
+
+        List<InventoryResponse> inventory = inventoryClient.getInventory(List.of("GAME_PC-The_Talos_Principle")).join();
+
+        Assertions.assertEquals(List.of(HttpMethod.POST, HttpMethod.GET), calls);
+        Assertions.assertEquals(1, inventory.size());
+        Assertions.assertEquals(100, inventory.get(0).getQuantity());
+        Assertions.assertTrue(inventory.get(0).isInStock());
+    }
+
+    @Test
+    void shouldFallBackToRestWhenBinaryResponseDoesNotDecode() {
+        InventoryClient inventoryClient = inventoryClient(ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, "application/x-inventory-stock")
+                .body("not a stock response")
+                .build(), Duration.ofMinutes(5));
+
+        inventoryClient.getInventory(List.of("GAME_PC-The_Talos_Principle")).join();
+
+        Assertions.assertEquals(List.of(HttpMethod.POST, HttpMethod.GET), calls);
+    }
+
+    @Test
+    void shouldUseRestDuringFallbackCooldown() {
+        InventoryClient inventoryClient = inventoryClient(ClientResponse.create(HttpStatus.NOT_FOUND).build(), Duration.ofMinutes(5));
+
+        inventoryClient.getInventory(List.of("GAME_PC-The_Talos_Principle")).join();
+        inventoryClient.getInventory(List.of("GAME_PC-The_Talos_Principle")).join();
+
+        Assertions.assertEquals(List.of(HttpMethod.POST, HttpMethod.GET, HttpMethod.GET), calls);
+    }
+
+    @Test
+    void shouldTryBinaryAgainAfterFallbackCooldown() {
+        InventoryClient inventoryClient = inventoryClient(ClientResponse.create(HttpStatus.NOT_FOUND).build(), Duration.ZERO);
+
+        inventoryClient.getInventory(List.of("GAME_PC-The_Talos_Principle")).join();
+        inventoryClient.getInventory(List.of("GAME_PC-The_Talos_Principle")).join();
+
+        Assertions.assertEquals(List.of(HttpMethod.POST, HttpMethod.GET, HttpMethod.POST, HttpMethod.GET), calls);
+    }
+
+    @Test
+    void shouldNotFallBackOnServerError() {
+        InventoryClient inventoryClient = inventoryClient(ClientResponse.create(HttpStatus.SERVICE_UNAVAILABLE).build(), Duration.ofMinutes(5));
+
+        CompletionException exception = Assertions.assertThrows(CompletionException.class, () ->
+                inventoryClient.getInventory(List.of("GAME_PC-The_Talos_Principle")).join());
+
+        Assertions.assertInstanceOf(WebClientResponseException.ServiceUnavailable.class, exception.getCause());
+        Assertions.assertEquals(List.of(HttpMethod.POST), calls);
+    }
+
+    // POST is the binary lookup and answers with binaryResponse, GET is the REST lookup
+    private InventoryClient inventoryClient(ClientResponse binaryResponse, Duration fallbackCooldown) {
+        return new InventoryClient(WebClient.builder().exchangeFunction(request -> {
+            calls.add(request.method());
+            if (request.method() == HttpMethod.POST) {
+                return Mono.just(binaryResponse.mutate().build());
+            }
+            return Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body("[{\"skuCode\": \"GAME_PC-The_Talos_Principle\", \"inStock\": true, \"quantity\": 100}]")
+                    .build());
+        }), Tracer.NOOP, true, fallbackCooldown);
+    }
+}
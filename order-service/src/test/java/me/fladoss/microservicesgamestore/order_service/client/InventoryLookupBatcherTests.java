@@ -0,0 +1,160 @@
+package me.fladoss.microservicesgamestore.order_service.client;
+
+import me.fladoss.microservicesgamestore.order_service.dto.InventoryResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+class InventoryLookupBatcherTests {
+
+    private final InventoryClient inventoryClient = Mockito.mock(InventoryClient.class);
+
+    private InventoryLookupBatcher batcher;
+
+    @AfterEach
+    void shutdownBatcher() {
+        if (batcher != null) {
+            batcher.shutdown();
+        }
+    }
+
+    @Test
+    void shouldCoalesceConcurrentLookupsIntoOneRequest() throws Exception {
+        Mockito.when(inventoryClient.getInventory(ArgumentMatchers.anyList()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(
+                        inventory("GAME_PC-Portal_2", 10),
+                        inventory("GAME_PC-The_Talos_Principle", 20))));
+        batcher = new InventoryLookupBatcher(inventoryClient, true, Duration.ofMillis(200), 100);
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<InventoryResponse>>> results = List.of(
+                    executor.submit(() -> lookupAfter(start, "GAME_PC-Portal_2")),
+                    executor.submit(() -> lookupAfter(start, "GAME_PC-Portal_2", "GAME_PC-The_Talos_Principle")),
+                    executor.submit(() -> lookupAfter(start, "GAME_PC-The_Talos_Principle")),
+                    executor.submit(() -> lookupAfter(start, "GAME_PC-Portal_2")));
+            start.countDown();
+
+            for (Future<List<InventoryResponse>> result : results) {
+                Assertions.assertFalse(result.get(5, TimeUnit.SECONDS).isEmpty());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Mockito.verify(inventoryClient, Mockito.times(1)).getInventory(ArgumentMatchers.argThat(skuCodes ->
+                skuCodes.size() == 2 && skuCodes.containsAll(List.of("GAME_PC-Portal_2", "GAME_PC-The_Talos_Principle"))));
+    }
+
+    @Test
+    void shouldFlushAsSoonAsBatchIsFull() {
+        Mockito.when(inventoryClient.getInventory(ArgumentMatchers.anyList()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(
+                        inventory("GAME_PC-Portal_2", 10),
+                        inventory("GAME_PC-The_Talos_Principle", 20))));
+        // A window long enough that only the size limit can trigger the request
+        batcher = new InventoryLookupBatcher(inventoryClient, true, Duration.ofHours(1), 2);
+
+        CompletableFuture<List<InventoryResponse>> first = batcher.getInventory(List.of("GAME_PC-Portal_2"));
+        Assertions.assertFalse(first.isDone());
+
+        CompletableFuture<List<InventoryResponse>> second = batcher.getInventory(List.of("GAME_PC-The_Talos_Principle"));
+
+        Assertions.assertEquals(10, first.join().get(0).getQuantity());
+        Assertions.assertEquals(20, second.join().get(0).getQuantity());
+        Mockito.verify(inventoryClient, Mockito.times(1)).getInventory(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    void shouldFlushWhenWindowElapses() {
+        Mockito.when(inventoryClient.getInventory(ArgumentMatchers.anyList()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(inventory("GAME_PC-Portal_2", 10))));
+        batcher = new InventoryLookupBatcher(inventoryClient, true, Duration.ofMillis(20), 100);
+
+        List<InventoryResponse> inventory = batcher.getInventory(List.of("GAME_PC-Portal_2", "GAME_PC-Unknown"))
+                .orTimeout(5, TimeUnit.SECONDS)
+                .join();
+
+        // SKUs unknown to inventory-service are left out, same as a direct lookup
+        Assertions.assertEquals(1, inventory.size());
+        Assertions.assertEquals("GAME_PC-Portal_2", inventory.get(0).getSkuCode());
+    }
+
+    @Test
+    void shouldFailEveryWaiterWhenLookupFails() {
+        IllegalStateException failure = new IllegalStateException("inventory-service unavailable");
+        Mockito.when(inventoryClient.getInventory(ArgumentMatchers.anyList()))
+                .thenReturn(CompletableFuture.failedFuture(failure));
+        batcher = new InventoryLookupBatcher(inventoryClient, true, Duration.ofHours(1), 3);
+
+        CompletableFuture<List<InventoryResponse>> first = batcher.getInventory(List.of("GAME_PC-Portal_2"));
+        CompletableFuture<List<InventoryResponse>> second = batcher.getInventory(List.of("GAME_PC-Portal_2", "GAME_PC-Doom"));
+        CompletableFuture<List<InventoryResponse>> third = batcher.getInventory(List.of("GAME_PC-The_Talos_Principle"));
+
+        for (CompletableFuture<List<InventoryResponse>> lookup : List.of(first, second, third)) {
+            CompletionException exception = Assertions.assertThrows(CompletionException.class, lookup::join);
+            Assertions.assertSame(failure, exception.getCause());
+        }
+    }
+
+    @Test
+    void shouldFailEveryWaiterWhenClientThrows() {
+        Mockito.when(inventoryClient.getInventory(ArgumentMatchers.anyList()))
+                .thenThrow(new IllegalStateException("no inventory-service instance"));
+        batcher = new InventoryLookupBatcher(inventoryClient, true, Duration.ofHours(1), 2);
+
+        CompletableFuture<List<InventoryResponse>> first = batcher.getInventory(List.of("GAME_PC-Portal_2"));
+        CompletableFuture<List<InventoryResponse>> second = batcher.getInventory(List.of("GAME_PC-Doom"));
+
+        Assertions.assertThrows(CompletionException.class, first::join);
+        Assertions.assertThrows(CompletionException.class, second::join);
+    }
+
+    @Test
+    void shouldSendPendingLookupsOnShutdown() {
+        Mockito.when(inventoryClient.getInventory(ArgumentMatchers.anyList()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(inventory("GAME_PC-Portal_2", 10))));
+        InventoryLookupBatcher batcher = new InventoryLookupBatcher(inventoryClient, true, Duration.ofHours(1), 100);
+
+        CompletableFuture<List<InventoryResponse>> pending = batcher.getInventory(List.of("GAME_PC-Portal_2"));
+        batcher.shutdown();
+
+        Assertions.assertTrue(pending.isDone());
+        Assertions.assertEquals(1, pending.join().size());
+    }
+
+    @Test
+    void shouldLookUpDirectlyAfterShutdown() {
+        Mockito.when(inventoryClient.getInventory(ArgumentMatchers.anyList()))
+                .thenReturn(CompletableFuture.completedFuture(List.of(inventory("GAME_PC-Portal_2", 10))));
+        InventoryLookupBatcher batcher = new InventoryLookupBatcher(inventoryClient, true, Duration.ofHours(1), 100);
+        batcher.shutdown();
+
+        CompletableFuture<List<InventoryResponse>> lookup = batcher.getInventory(List.of("GAME_PC-Portal_2"));
+
+        Assertions.assertTrue(lookup.isDone());
+        Assertions.assertEquals(1, lookup.join().size());
+    }
+
+    private List<InventoryResponse> lookupAfter(CountDownLatch start, String... skuCodes) throws InterruptedException {
+        start.await();
+        return batcher.getInventory(List.of(skuCodes)).join();
+    }
+
+    private static InventoryResponse inventory(String skuCode, int quantity) {
+        return new InventoryResponse(skuCode, quantity > 0, quantity);
+    }
+}
@@ -0,0 +1,64 @@
+package me.fladoss.microservicesgamestore.order_service.codec;
+
+import me.fladoss.microservicesgamestore.order_service.dto.InventoryResponse;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+class InventoryStockCodecTests {
+
+    @Test
+    void shouldRoundTripThroughInventoryFormat() throws IOException {
+        List<String> skuCodes = List.of("in-stock", "sold-out", "no-quantity");
+
+        // What inventory-service answers for the decoded request
+        List<String> requested = readRequest(InventoryStockCodec.writeRequest(skuCodes));
+        Assertions.assertEquals(skuCodes, requested);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(1);
+        output.writeInt(3);
+        output.writeUTF("in-stock");
+        output.writeBoolean(true);
+        output.writeInt(7);
+        output.writeUTF("sold-out");
+        output.writeBoolean(true);
+        output.writeInt(0);
+        output.writeUTF("no-quantity");
+        output.writeBoolean(false);
+
+        List<InventoryResponse> inventoryResponses = InventoryStockCodec.readResponse(bytes.toByteArray());
+
+        Assertions.assertEquals(3, inventoryResponses.size());
+        Assertions.assertEquals(new InventoryResponse("in-stock", true, 7), inventoryResponses.get(0));
+        Assertions.assertEquals(new InventoryResponse("sold-out", false, 0), inventoryResponses.get(1));
+        Assertions.assertEquals(new InventoryResponse("no-quantity", false, null), inventoryResponses.get(2));
+    }
+
+    @Test
+    void shouldRejectOtherVersions() {
+        Assertions.assertThrows(UncheckedIOException.class, () -> InventoryStockCodec.readResponse(new byte[]{2, 0, 0, 0, 0}));
+        Assertions.assertThrows(UncheckedIOException.class, () -> InventoryStockCodec.readResponse(new byte[0]));
+    }
+
+    private static List<String> readRequest(byte[] body) throws IOException {
+        DataInputStream input = new DataInputStream(new ByteArrayInputStream(body));
+        Assertions.assertEquals(1, input.readByte());
+
+        int count = input.readInt();
+        List<String> skuCodes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            skuCodes.add(input.readUTF());
+        }
+        return skuCodes;
+    }
+}
@@ -0,0 +1,136 @@
+package me.fladoss.microservicesgamestore.order_service.loadbalancer;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+
+import java.time.Duration;
+import java.util.List;
+
+class LatencyAwareLoadBalancerTests {
+
+    private final ServiceInstance first = new DefaultServiceInstance("first", "inventory-service", "first", 8080, false);
+
+    private final ServiceInstance second = new DefaultServiceInstance("second", "inventory-service", "second", 8080, false);
+
+    private final InstanceLoadTracker loadTracker = new InstanceLoadTracker(0.3, Duration.ofSeconds(10), 3, Duration.ofSeconds(30), Duration.ofMillis(200));
+
+    // choose(List) does not use the instance list supplier
+    private final LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(null, loadTracker);
+
+    @Test
+    void shouldPreferInstanceWithFewerRequestsInFlight() {
+        for (int i = 0; i < 3; i++) {
+            loadTracker.onStartRequest(new DefaultRequest<>(), new DefaultResponse(first));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(second, loadBalancer.choose(List.of(first, second)));
+        }
+    }
+
+    @Test
+    void shouldForgetCancelledRequests() throws InterruptedException {
+        // A cancelled call gets a start but never a completion
+        for (int i = 0; i < 3; i++) {
+            loadTracker.onStartRequest(new DefaultRequest<>(), new DefaultResponse(first));
+        }
+        Assertions.assertEquals(3, loadTracker.statsOf(first).getInFlight());
+
+        Thread.sleep(300);
+
+        Assertions.assertEquals(0, loadTracker.statsOf(first).getInFlight());
+        Assertions.assertEquals(0, loadTracker.statsOf(second).getInFlight());
+    }
+
+    @Test
+    void shouldEjectInstanceWhoseRequestsAreCancelled() throws InterruptedException {
+        // Calls to a stalled instance, cancelled by the caller's time limiter
+        for (int i = 0; i < 3; i++) {
+            loadTracker.onStartRequest(new DefaultRequest<>(), new DefaultResponse(first));
+        }
+
+        Thread.sleep(300);
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(second, loadBalancer.choose(List.of(first, second)));
+        }
+        Assertions.assertTrue(loadTracker.statsOf(first).isEjected(System.currentTimeMillis()));
+    }
+
+    @Test
+    void shouldNotCountSlowCompletedRequestAsAbandoned() throws InterruptedException {
+        for (int i = 0; i < 2; i++) {
+            fail(first);
+        }
+        Request<Object> request = new DefaultRequest<>();
+        Response<ServiceInstance> response = new DefaultResponse(first);
+        loadTracker.onStartRequest(request, response);
+
+        Thread.sleep(300);
+        loadTracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+
+        // The success resets the failures in a row, so two more do not eject the instance
+        for (int i = 0; i < 2; i++) {
+            fail(first);
+        }
+        Assertions.assertFalse(loadTracker.statsOf(first).isEjected(System.currentTimeMillis()));
+    }
+
+    @Test
+    void shouldRecordLatencyOfCompletedRequests() {
+        Request<Object> request = new DefaultRequest<>();
+        Response<ServiceInstance> response = new DefaultResponse(first);
+
+        loadTracker.onStartRequest(request, response);
+        Assertions.assertEquals(1, loadTracker.statsOf(first).getInFlight());
+        loadTracker.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+
+        Assertions.assertEquals(0, loadTracker.statsOf(first).getInFlight());
+        Assertions.assertTrue(loadTracker.statsOf(first).getLatencyNanos(System.currentTimeMillis(), 10_000) >= 0);
+    }
+
+    @Test
+    void shouldPreferFasterInstance() {
+        long nowMillis = System.currentTimeMillis();
+        loadTracker.statsOf(first).recordLatency(Duration.ofMillis(50).toNanos(), 0.3, nowMillis, 10_000);
+        loadTracker.statsOf(second).recordLatency(Duration.ofMillis(5).toNanos(), 0.3, nowMillis, 10_000);
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(second, loadBalancer.choose(List.of(first, second)));
+        }
+    }
+
+    @Test
+    void shouldEjectFailingInstance() {
+        for (int i = 0; i < 3; i++) {
+            fail(second);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertEquals(first, loadBalancer.choose(List.of(first, second)));
+        }
+
+        for (int i = 0; i < 3; i++) {
+            fail(first);
+        }
+
+        // With every instance ejected a request still gets one
+        Assertions.assertNotNull(loadBalancer.choose(List.of(first, second)));
+    }
+
+    private void fail(ServiceInstance instance) {
+        Request<Object> request = new DefaultRequest<>();
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+
+        loadTracker.onStartRequest(request, response);
+        loadTracker.onComplete(new CompletionContext<>(CompletionContext.Status.FAILED, new IllegalStateException("Connection refused"), request, response));
+        Assertions.assertEquals(0, loadTracker.statsOf(instance).getInFlight());
+    }
+}
@@ -0,0 +1,131 @@
+package me.fladoss.microservicesgamestore.order_service.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import me.fladoss.microservicesgamestore.order_service.dto.OrderLineItemRow;
+import me.fladoss.microservicesgamestore.order_service.entity.Order;
+import me.fladoss.microservicesgamestore.order_service.entity.OrderLineItems;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers
+class OrderRepositoryTests {
+
+    @Container
+    static PostgreSQLContainer<?> postgreSQLContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15.2"))
+            .withDatabaseName("order_service_db_test");
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgreSQLContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
+        registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
+        registry.add("spring.liquibase.change-log", () -> "classpath:/db/changelog/liquibase_order.changelog-test.yaml");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void shouldSaveOrderWithLineItemsInTwoStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        // the first order fetches the sequence pools, the next ones are served from memory
+        orderRepository.saveAndFlush(getOrder(1));
+        statistics.clear();
+
+        orderRepository.saveAndFlush(getOrder(40));
+
+        Assertions.assertEquals(41, statistics.getEntityInsertCount());
+        // one INSERT into orders plus one batched INSERT into order_line_items
+        Assertions.assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void shouldProjectEachLineItemAsRowOfItsOrder() {
+        Order first = orderRepository.saveAndFlush(getOrder(3));
+        Order empty = orderRepository.saveAndFlush(getOrder(0));
+        Order last = orderRepository.saveAndFlush(getOrder(2));
+
+        List<OrderLineItemRow> rows = orderRepository.findRowsByOrderIdIn(List.of(last.getId(), first.getId(), empty.getId()));
+
+        // ordered by order id, so each order's rows are adjacent, and an order without items still has one row
+        Assertions.assertEquals(List.of(first.getId(), first.getId(), first.getId(), empty.getId(), last.getId(), last.getId()),
+                rows.stream().map(OrderLineItemRow::getOrderId).toList());
+        Assertions.assertNull(rows.get(3).getLineItemId());
+        Assertions.assertNull(rows.get(3).getSkuCode());
+
+        OrderLineItems lineItem = first.getOrderLineItems().get(0);
+        OrderLineItemRow row = rows.get(0);
+        Assertions.assertEquals(first.getOrderNumber(), row.getOrderNumber());
+        Assertions.assertNotNull(row.getCreatedAt());
+        Assertions.assertEquals(lineItem.getId(), row.getLineItemId());
+        Assertions.assertEquals(lineItem.getSkuCode(), row.getSkuCode());
+        Assertions.assertEquals(0, lineItem.getPrice().compareTo(row.getPrice()));
+        Assertions.assertEquals(lineItem.getQuantity(), row.getQuantity());
+    }
+
+    @Test
+    void shouldProjectAllLineItemsOfOneOrder() {
+        Order order = orderRepository.saveAndFlush(getOrder(4));
+        orderRepository.saveAndFlush(getOrder(1));
+
+        List<OrderLineItemRow> rows = orderRepository.findRowsByOrderId(order.getId());
+
+        Assertions.assertEquals(order.getOrderLineItems().stream().map(OrderLineItems::getId).sorted().toList(),
+                rows.stream().map(OrderLineItemRow::getLineItemId).toList());
+    }
+
+    @Test
+    void shouldStreamRowsOrderedByOrder() {
+        Order first = orderRepository.saveAndFlush(getOrder(2));
+        Order second = orderRepository.saveAndFlush(getOrder(1));
+
+        try (Stream<OrderLineItemRow> rows = orderRepository.streamRows(Instant.EPOCH)) {
+            Assertions.assertEquals(List.of(first.getId(), first.getId(), second.getId()),
+                    rows.map(OrderLineItemRow::getOrderId)
+                            .filter(id -> id.equals(first.getId()) || id.equals(second.getId()))
+                            .toList());
+        }
+    }
+
+    private Order getOrder(int lineItemCount) {
+        Order order = new Order();
+        order.setOrderNumber(UUID.randomUUID().toString());
+
+        List<OrderLineItems> orderLineItems = IntStream.range(0, lineItemCount)
+                .mapToObj(i -> OrderLineItems.builder()
+                        .skuCode("game/" + UUID.randomUUID().toString().substring(0, 8))
+                        .price(BigDecimal.valueOf(6.49))
+                        .quantity(1)
+                        .order(order)
+                        .build())
+                .toList();
+        order.setOrderLineItems(orderLineItems);
+
+        return order;
+    }
+}
@@ -0,0 +1,177 @@
+package me.fladoss.microservicesgamestore.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.fladoss.microservicesgamestore.order_service.dto.OrderLineItemRow;
+import me.fladoss.microservicesgamestore.order_service.dto.OrderLineItemsDto;
+import me.fladoss.microservicesgamestore.order_service.dto.OrderRequest;
+import me.fladoss.microservicesgamestore.order_service.dto.OrderResponse;
+import me.fladoss.microservicesgamestore.order_service.repository.OrderRepository;
+import me.fladoss.microservicesgamestore.order_service.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+class OrderServiceTests {
+
+    private final OrderRepository orderRepository = Mockito.mock(OrderRepository.class);
+
+    private final InventoryCheckService inventoryCheckService = Mockito.mock(InventoryCheckService.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private final OrderService orderService = new OrderService(
+            orderRepository,
+            inventoryCheckService,
+            () -> "01HZXKQ6J1N5V2WQ3TB8M4C7RD",
+            Mockito.mock(OutboxEventRepository.class),
+            objectMapper,
+            new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+            Runnable::run);
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(inventoryCheckService.checkInventory(ArgumentMatchers.anyMap())).thenReturn(CompletableFuture.completedFuture(true));
+        Mockito.when(inventoryCheckService.confirmReservation(ArgumentMatchers.anyString())).thenReturn(CompletableFuture.completedFuture(null));
+        Mockito.when(inventoryCheckService.releaseReservation(ArgumentMatchers.anyString())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void shouldReserveStockAndConfirmAfterSave() {
+        Mockito.when(inventoryCheckService.reserveInventory(ArgumentMatchers.anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of("reservation")));
+
+        orderService.placeOrder(orderRequest()).join();
+
+        Mockito.verify(inventoryCheckService).reserveInventory(Map.of("GAME_PC-The_Talos_Principle", 3, "GAME_PC-Dredge", 1));
+        Mockito.verify(orderRepository).save(ArgumentMatchers.any());
+        Mockito.verify(inventoryCheckService).confirmReservation("reservation");
+        Mockito.verify(inventoryCheckService, Mockito.never()).releaseReservation(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void shouldNotSaveOrderWhenReservationIsRejected() {
+        Mockito.when(inventoryCheckService.reserveInventory(ArgumentMatchers.anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.empty()));
+
+        CompletionException exception = Assertions.assertThrows(CompletionException.class, () -> orderService.placeOrder(orderRequest()).join());
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, ((ResponseStatusException) exception.getCause()).getStatusCode());
+        Mockito.verify(orderRepository, Mockito.never()).save(ArgumentMatchers.any());
+    }
+
+    @Test
+    void shouldNotReserveWhenAvailabilityCheckFails() {
+        Mockito.when(inventoryCheckService.checkInventory(ArgumentMatchers.anyMap())).thenReturn(CompletableFuture.completedFuture(false));
+
+        Assertions.assertThrows(CompletionException.class, () -> orderService.placeOrder(orderRequest()).join());
+
+        Mockito.verify(inventoryCheckService, Mockito.never()).reserveInventory(ArgumentMatchers.anyMap());
+    }
+
+    @Test
+    void shouldReleaseReservationWhenSaveFails() {
+        Mockito.when(inventoryCheckService.reserveInventory(ArgumentMatchers.anyMap()))
+                .thenReturn(CompletableFuture.completedFuture(Optional.of("reservation")));
+        Mockito.when(orderRepository.save(ArgumentMatchers.any())).thenThrow(new IllegalStateException("connection lost"));
+
+        CompletionException exception = Assertions.assertThrows(CompletionException.class, () -> orderService.placeOrder(orderRequest()).join());
+
+        Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, ((ResponseStatusException) exception.getCause()).getStatusCode());
+        Mockito.verify(inventoryCheckService).releaseReservation("reservation");
+        Mockito.verify(inventoryCheckService, Mockito.never()).confirmReservation(ArgumentMatchers.anyString());
+    }
+
+    @Test
+    void shouldGroupRowsIntoOneOrderEach() {
+        Instant createdAt = Instant.parse("2024-03-01T10:15:30Z");
+        List<OrderLineItemRow> rows = List.of(
+                new OrderLineItemRow(1L, "01HZXKQ6J1N5V2WQ3TB8M4C7RA", createdAt, 10L, "GAME_PC-The_Talos_Principle", BigDecimal.valueOf(6.49), 3),
+                new OrderLineItemRow(1L, "01HZXKQ6J1N5V2WQ3TB8M4C7RA", createdAt, 11L, "GAME_PC-Dredge", BigDecimal.valueOf(24.99), 1),
+                new OrderLineItemRow(2L, "01HZXKQ6J1N5V2WQ3TB8M4C7RB", createdAt, null, null, null, null));
+        Mockito.when(orderRepository.findPageIds(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any()))
+                .thenReturn(List.of(1L, 2L));
+        Mockito.when(orderRepository.findRowsByOrderIdIn(List.of(1L, 2L))).thenReturn(rows);
+
+        List<OrderResponse> orders = orderService.getOrders(null, null, 20).getOrders();
+
+        Assertions.assertEquals(2, orders.size());
+        Assertions.assertEquals("01HZXKQ6J1N5V2WQ3TB8M4C7RA", orders.get(0).getOrderNumber());
+        Assertions.assertEquals(List.of(10L, 11L), orders.get(0).getOrderLineItems().stream().map(OrderLineItemsDto::getId).toList());
+        Assertions.assertEquals(3, orders.get(0).getOrderLineItems().get(0).getQuantity());
+        Assertions.assertTrue(orders.get(1).getOrderLineItems().isEmpty());
+    }
+
+    @Test
+    void shouldReturnOrderWithAllItsLineItems() {
+        Instant createdAt = Instant.parse("2024-03-01T10:15:30Z");
+        Mockito.when(orderRepository.findRowsByOrderId(1L)).thenReturn(List.of(
+                new OrderLineItemRow(1L, "01HZXKQ6J1N5V2WQ3TB8M4C7RA", createdAt, 10L, "GAME_PC-The_Talos_Principle", BigDecimal.valueOf(6.49), 3),
+                new OrderLineItemRow(1L, "01HZXKQ6J1N5V2WQ3TB8M4C7RA", createdAt, 11L, "GAME_PC-Dredge", BigDecimal.valueOf(24.99), 1)));
+
+        OrderResponse order = orderService.getOrderById(1L);
+
+        Assertions.assertEquals(1L, order.getId());
+        Assertions.assertEquals(createdAt, order.getCreatedAt());
+        Assertions.assertEquals(List.of("GAME_PC-The_Talos_Principle", "GAME_PC-Dredge"),
+                order.getOrderLineItems().stream().map(OrderLineItemsDto::getSkuCode).toList());
+    }
+
+    @Test
+    void shouldRejectUnknownOrder() {
+        Mockito.when(orderRepository.findRowsByOrderId(1L)).thenReturn(List.of());
+
+        ResponseStatusException exception = Assertions.assertThrows(ResponseStatusException.class, () -> orderService.getOrderById(1L));
+
+        Assertions.assertEquals(HttpStatus.NOT_FOUND, exception.getStatusCode());
+    }
+
+    @Test
+    void shouldExportOneLinePerOrder() throws Exception {
+        Instant createdAt = Instant.parse("2024-03-01T10:15:30Z");
+        List<OrderLineItemRow> rows = List.of(
+                new OrderLineItemRow(1L, "01HZXKQ6J1N5V2WQ3TB8M4C7RA", createdAt, 10L, "GAME_PC-The_Talos_Principle", BigDecimal.valueOf(6.49), 3),
+                new OrderLineItemRow(1L, "01HZXKQ6J1N5V2WQ3TB8M4C7RA", createdAt, 11L, "GAME_PC-Dredge", BigDecimal.valueOf(24.99), 1),
+                new OrderLineItemRow(2L, "01HZXKQ6J1N5V2WQ3TB8M4C7RB", createdAt, null, null, null, null),
+                new OrderLineItemRow(3L, "01HZXKQ6J1N5V2WQ3TB8M4C7RC", createdAt, 12L, "GAME_PC-Dredge", BigDecimal.valueOf(24.99), 2));
+        Mockito.when(orderRepository.streamRows(Instant.EPOCH)).thenReturn(rows.stream());
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        orderService.exportOrders(null, outputStream);
+
+        List<String> lines = outputStream.toString(StandardCharsets.UTF_8).lines().toList();
+        Assertions.assertEquals(3, lines.size());
+
+        OrderResponse first = objectMapper.readValue(lines.get(0), OrderResponse.class);
+        Assertions.assertEquals(1L, first.getId());
+        Assertions.assertEquals(createdAt, first.getCreatedAt());
+        Assertions.assertEquals(List.of("GAME_PC-The_Talos_Principle", "GAME_PC-Dredge"),
+                first.getOrderLineItems().stream().map(OrderLineItemsDto::getSkuCode).toList());
+        Assertions.assertTrue(objectMapper.readValue(lines.get(1), OrderResponse.class).getOrderLineItems().isEmpty());
+        Assertions.assertEquals(3L, objectMapper.readValue(lines.get(2), OrderResponse.class).getId());
+    }
+
+    private static OrderRequest orderRequest() {
+        return OrderRequest.builder()
+                .orderLineItemsDto(List.of(
+                        OrderLineItemsDto.builder().skuCode("GAME_PC-The_Talos_Principle").quantity(2).price(BigDecimal.valueOf(6.49)).build(),
+                        OrderLineItemsDto.builder().skuCode("GAME_PC-Dredge").quantity(1).price(BigDecimal.valueOf(24.99)).build(),
+                        OrderLineItemsDto.builder().skuCode("GAME_PC-The_Talos_Principle").quantity(1).price(BigDecimal.valueOf(6.49)).build()))
+                .build();
+    }
+}
@@ -0,0 +1,65 @@
+package me.fladoss.microservicesgamestore.order_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.fladoss.microservicesgamestore.order_service.entity.OutboxEvent;
+import me.fladoss.microservicesgamestore.order_service.event.OrderPlacedEvent;
+import me.fladoss.microservicesgamestore.order_service.repository.OutboxEventRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+class OutboxRelayTests {
+
+    private final OutboxEventRepository outboxEventRepository = Mockito.mock(OutboxEventRepository.class);
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, OrderPlacedEvent> kafkaTemplate = Mockito.mock(KafkaTemplate.class);
+
+    private final OutboxRelay outboxRelay = new OutboxRelay(
+            outboxEventRepository,
+            kafkaTemplate,
+            new TransactionTemplate(Mockito.mock(PlatformTransactionManager.class)),
+            new ObjectMapper());
+
+    @Test
+    void shouldMarkUnreadablePayloadFailedAndRelayTheRest() {
+        ReflectionTestUtils.setField(outboxRelay, "batchSize", 3);
+        ReflectionTestUtils.setField(outboxRelay, "sendTimeout", Duration.ofSeconds(1));
+
+        OutboxEvent first = event(1L, "A", "{\"orderNumber\": \"A\"}");
+        OutboxEvent unreadable = event(2L, "B", "{not json");
+        OutboxEvent third = event(3L, "C", "{\"orderNumber\": \"C\"}");
+
+        Mockito.when(outboxEventRepository.tryRelayLock(ArgumentMatchers.anyLong())).thenReturn(true);
+        Mockito.when(outboxEventRepository.findNextBatch(3)).thenReturn(List.of(first, unreadable, third), List.of());
+        Mockito.when(kafkaTemplate.send(ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        outboxRelay.relay();
+
+        Mockito.verify(kafkaTemplate).send("orderPlaced", "A", new OrderPlacedEvent("A"));
+        Mockito.verify(kafkaTemplate).send("orderPlaced", "C", new OrderPlacedEvent("C"));
+        Mockito.verify(kafkaTemplate, Mockito.never()).send(ArgumentMatchers.anyString(), ArgumentMatchers.eq("B"), ArgumentMatchers.any());
+        Mockito.verify(outboxEventRepository).deleteAllInBatch(List.of(first, third));
+        Assertions.assertNotNull(unreadable.getFailedAt());
+        Assertions.assertNull(first.getFailedAt());
+    }
+
+    private static OutboxEvent event(Long id, String messageKey, String payload) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("orderPlaced")
+                .messageKey(messageKey)
+                .payload(payload)
+                .build();
+    }
+}
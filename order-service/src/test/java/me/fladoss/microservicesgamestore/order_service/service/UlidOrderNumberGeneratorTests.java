@@ -0,0 +1,54 @@
+package me.fladoss.microservicesgamestore.order_service.service;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+class UlidOrderNumberGeneratorTests {
+
+    private final UlidOrderNumberGenerator orderNumberGenerator = new UlidOrderNumberGenerator();
+
+    @Test
+    void shouldGenerateIncreasingOrderNumbers() {
+        String previous = orderNumberGenerator.nextOrderNumber();
+
+        for (int i = 0; i < 100_000; i++) {
+            String next = orderNumberGenerator.nextOrderNumber();
+
+            Assertions.assertEquals(26, next.length());
+            Assertions.assertTrue(next.compareTo(previous) > 0, next + " should sort after " + previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    void shouldGenerateUniqueOrderNumbersConcurrently() throws Exception {
+        Set<String> orderNumbers = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        orderNumbers.add(orderNumberGenerator.nextOrderNumber());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertEquals(80_000, orderNumbers.size());
+    }
+}
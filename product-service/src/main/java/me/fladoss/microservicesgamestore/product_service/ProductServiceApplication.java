@@ -2,9 +2,10 @@ package me.fladoss.microservicesgamestore.product_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
-
+@EnableScheduling
 public class ProductServiceApplication {
 
     public static void main(String[] args) {
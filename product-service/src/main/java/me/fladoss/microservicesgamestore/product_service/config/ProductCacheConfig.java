@@ -0,0 +1,32 @@
+package me.fladoss.microservicesgamestore.product_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class ProductCacheConfig {
+
+    public static final String PRODUCTS = "products";
+
+    public static final String PRODUCT_PAGES = "productPages";
+
+    public static final String PRODUCT_SEARCH = "productSearch";
+
+    // Bounded and TTL-evicting. Evictions only reach this instance's cache, so the TTL bounds how long
+    // other instances (and changes made behind the service's back) serve an outdated product.
+    @Bean
+    public CacheManager cacheManager(@Value("${product.cache.spec:maximumSize=10000,expireAfterWrite=30s}") String cacheSpec) {
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager(PRODUCTS, PRODUCT_PAGES, PRODUCT_SEARCH);
+        caffeineCacheManager.setCacheSpecification(cacheSpec);
+        caffeineCacheManager.setAllowNullValues(false);
+        // Evictions run after commit, and cache misses read the primary rather than a possibly lagging replica,
+        // so a read after the change cannot cache the row as it was before it
+        return new TransactionAwareCacheManagerProxy(caffeineCacheManager);
+    }
+}
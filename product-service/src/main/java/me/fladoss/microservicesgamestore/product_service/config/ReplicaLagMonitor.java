@@ -0,0 +1,73 @@
+package me.fladoss.microservicesgamestore.product_service.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// Periodically measures how far the replica is behind the primary. Reads go to the replica only while
+// the last check succeeded within the allowed lag; an unreachable or lagging replica sends them to the primary.
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // Milliseconds behind the primary, NULL (unusable) for a standby without a WAL receiver: one that lost its
+    // upstream has replayed all it received and would otherwise look caught up however stale it gets.
+    // A streaming standby that has replayed everything it received is current even when the primary is idle
+    // (where the replay timestamp alone would keep growing). A server that is not a standby at all reports zero.
+    private static final String LAG_QUERY = """
+            SELECT CASE
+                WHEN NOT pg_is_in_recovery() THEN 0
+                WHEN NOT EXISTS (SELECT 1 FROM pg_stat_wal_receiver WHERE pid IS NOT NULL) THEN NULL
+                WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE CAST(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000 AS bigint)
+            END
+            """;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+
+    private final Duration maxLag;
+
+    private volatile boolean replicaUsable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, Duration maxLag) {
+        this(new JdbcTemplate(replicaDataSource), maxLag);
+    }
+
+    ReplicaLagMonitor(JdbcTemplate replicaJdbcTemplate, Duration maxLag) {
+        this.replicaJdbcTemplate = replicaJdbcTemplate;
+        this.maxLag = maxLag;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${spring.datasource.replica.lag-check-interval:5s}")
+    public void checkLag() {
+        boolean usable;
+        try {
+            Long lagMs = replicaJdbcTemplate.queryForObject(LAG_QUERY, Long.class);
+            usable = lagMs != null && lagMs <= maxLag.toMillis();
+            if (!usable && replicaUsable) {
+                if (lagMs == null) {
+                    log.warn("Replica has no WAL receiver (lost its primary), reading from the primary");
+                } else {
+                    log.warn("Replica is {} ms behind the primary, reading from the primary", lagMs);
+                }
+            }
+        } catch (DataAccessException e) {
+            usable = false;
+            if (replicaUsable) {
+                log.warn("Replica lag check failed, reading from the primary: {}", e.getMessage());
+            }
+        }
+
+        if (usable && !replicaUsable) {
+            log.info("Replica is within {} of the primary, read-only transactions go to the replica", maxLag);
+        }
+        replicaUsable = usable;
+    }
+}
@@ -2,13 +2,22 @@ package me.fladoss.microservicesgamestore.product_service.controller;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductFilter;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductPageResponse;
 import me.fladoss.microservicesgamestore.product_service.dto.ProductRequest;
 import me.fladoss.microservicesgamestore.product_service.dto.ProductResponse;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductSearchResponse;
+import me.fladoss.microservicesgamestore.product_service.service.ProductCatalogSnapshot;
 import me.fladoss.microservicesgamestore.product_service.service.ProductService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.time.Duration;
+import java.time.Instant;
 
 @RestController
 @RequestMapping("/api/product")
@@ -16,18 +25,100 @@ import java.util.List;
 @Slf4j
 public class ProductController {
 
+    // Clients revalidate every time (ETag); shared caches such as the gateway may reuse a response for 30 s
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ZERO).sMaxAge(Duration.ofSeconds(30));
+
     private final ProductService productService;
 
+    private final ProductCatalogSnapshot productCatalogSnapshot;
+
+    // A matching If-None-Match (or If-Modified-Since) gets a 304 without a body.
+    // Pages have no Last-Modified: deleting a product would not move it forward.
     @GetMapping
+    public ResponseEntity<?> getProducts(ProductFilter filter,
+                                         @RequestParam(defaultValue = "id") String sort,
+                                         @RequestParam(defaultValue = "asc") String direction,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(defaultValue = "" + ProductCatalogSnapshot.PAGE_SIZE) int size,
+                                         @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ProductCatalogSnapshot.Page snapshot = productCatalogSnapshot.find(filter, sort, direction, cursor, size);
+        if (snapshot != null) {
+            boolean gzip = acceptsGzip(acceptEncoding);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .cacheControl(CACHE_CONTROL)
+                    .eTag(snapshot.eTag())
+                    .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                    .contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(gzip ? snapshot.gzippedJson() : snapshot.json());
+        }
+
+        ProductPageResponse page = productService.getProducts(filter, sort, direction, cursor, size);
+
+        // The same URL may be answered from the snapshot, gzipped, so shared caches must key it by encoding here too
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .eTag(ProductCatalogSnapshot.eTagOf(page))
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .body(page);
+    }
+
+    // gzip is acceptable when listed (or covered by *) with a non-zero q-value
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+
+        Double gzipQuality = null;
+        Double anyQuality = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            double quality = 1;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                    try {
+                        quality = Double.parseDouble(parameter.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        quality = 0;
+                    }
+                }
+            }
+
+            if (name.equalsIgnoreCase("gzip") || name.equalsIgnoreCase("x-gzip")) {
+                gzipQuality = quality;
+            } else if (name.equals("*")) {
+                anyQuality = quality;
+            }
+        }
+
+        if (gzipQuality != null) {
+            return gzipQuality > 0;
+        }
+        return anyQuality != null && anyQuality > 0;
+    }
+
+    @GetMapping("/search")
     @ResponseStatus(HttpStatus.OK)
-    public List<ProductResponse> getAllProducts() {
-        return productService.getAllProducts();
+    public ProductSearchResponse searchProducts(@RequestParam("q") String query,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "24") int size) {
+        return productService.searchProducts(query, page, size);
     }
 
     @GetMapping("/{id}")
-    @ResponseStatus(HttpStatus.OK)
-    public ProductResponse getProductById(@PathVariable Long id) {
-        return productService.getProductById(id);
+    public ResponseEntity<ProductResponse> getProductById(@PathVariable Long id) {
+        ProductResponse product = productService.getProductById(id);
+        Instant lastModified = product.getUpdatedAt() != null ? product.getUpdatedAt() : Instant.EPOCH;
+
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .eTag("W/\"" + product.getId() + "-" + lastModified.toEpochMilli() + "\"")
+                .lastModified(lastModified)
+                .body(product);
     }
 
     @PostMapping
@@ -0,0 +1,19 @@
+package me.fladoss.microservicesgamestore.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductFilter {
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    // Case-insensitive
+    private String namePrefix;
+}
@@ -0,0 +1,18 @@
+package me.fladoss.microservicesgamestore.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductPageResponse {
+    private List<ProductResponse> products;
+    // Pass as cursor (with the same sort and direction) to get the next page; null on the last page
+    private String nextCursor;
+}
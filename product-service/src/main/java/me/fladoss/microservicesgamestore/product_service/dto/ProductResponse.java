@@ -6,6 +6,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Data
 @Builder
@@ -13,7 +14,9 @@ import java.math.BigDecimal;
 @NoArgsConstructor
 public class ProductResponse {
     private Long id;
+    private String skuCode;
     private String name;
     private String description;
     private BigDecimal price;
+    private Instant updatedAt;
 }
@@ -0,0 +1,20 @@
+package me.fladoss.microservicesgamestore.product_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ProductSearchResponse {
+    // Best match first
+    private List<ProductResponse> products;
+    private int page;
+    // null when there are no more results
+    private Integer nextPage;
+}
@@ -0,0 +1,15 @@
+package me.fladoss.microservicesgamestore.product_service.dto;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+// Listing orders; every one is backed by an index ending in id, which breaks ties
+@Getter
+@RequiredArgsConstructor
+public enum ProductSort {
+    ID("id"),
+    PRICE("price"),
+    NAME("name");
+
+    private final String attribute;
+}
@@ -2,8 +2,10 @@ package me.fladoss.microservicesgamestore.product_service.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 
 @Entity
 @Table(name = "products")
@@ -16,7 +18,11 @@ public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    // Links the product to its stock in inventory-service
+    private String skuCode;
     private String name;
     private String description;
     private BigDecimal price;
+    @UpdateTimestamp
+    private Instant updatedAt;
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package me.fladoss.microservicesgamestore.product_service.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProductChangedEvent {
+    private Long productId;
+}
@@ -2,9 +2,22 @@ package me.fladoss.microservicesgamestore.product_service.repository;
 
 import me.fladoss.microservicesgamestore.product_service.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductRepositoryCustom {
 
+    // Matches through products_search_vector_idx (GIN); name matches weigh more than description matches
+    @Query(value = """
+            SELECT p.id, p.sku_code, p.name, p.description, p.price, p.updated_at
+            FROM products p, websearch_to_tsquery('english', :query) q
+            WHERE p.search_vector @@ q
+            ORDER BY ts_rank_cd(p.search_vector, q) DESC, p.id
+            LIMIT :limit OFFSET :offset
+            """, nativeQuery = true)
+    List<Product> search(@Param("query") String query, @Param("limit") int limit, @Param("offset") int offset);
 }
\ No newline at end of file
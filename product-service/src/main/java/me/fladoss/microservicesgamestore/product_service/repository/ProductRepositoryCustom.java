@@ -0,0 +1,13 @@
+package me.fladoss.microservicesgamestore.product_service.repository;
+
+import me.fladoss.microservicesgamestore.product_service.dto.ProductFilter;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductSort;
+import me.fladoss.microservicesgamestore.product_service.entity.Product;
+
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    // Keyset page: the rows after (lastValue, lastId) in the given order, or the first rows when lastId is null
+    List<Product> findPage(ProductFilter filter, ProductSort sort, boolean descending, Object lastValue, Long lastId, int limit);
+}
@@ -0,0 +1,96 @@
+package me.fladoss.microservicesgamestore.product_service.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductFilter;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductSort;
+import me.fladoss.microservicesgamestore.product_service.entity.Product;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@RequiredArgsConstructor
+public class ProductRepositoryImpl implements ProductRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Product> findPage(ProductFilter filter, ProductSort sort, boolean descending, Object lastValue, Long lastId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Product> query = cb.createQuery(Product.class);
+        Root<Product> product = query.from(Product.class);
+        Path<Long> id = product.get("id");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.get("price"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(product.get("price"), filter.getMaxPrice()));
+        }
+        if (filter.getNamePrefix() != null && !filter.getNamePrefix().isBlank()) {
+            // Matches products_lower_name_pattern_idx
+            String pattern = escapeLike(filter.getNamePrefix().trim().toLowerCase(Locale.ROOT)) + "%";
+            predicates.add(cb.like(cb.lower(product.get("name")), pattern, '\\'));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        switch (sort) {
+            case ID -> {
+                if (lastId != null) {
+                    predicates.add(descending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId));
+                }
+            }
+            case PRICE -> {
+                Path<BigDecimal> price = product.get("price");
+                if (lastId != null) {
+                    predicates.add(after(cb, price, id, (BigDecimal) lastValue, lastId, descending));
+                }
+                orders.add(descending ? cb.desc(price) : cb.asc(price));
+            }
+            case NAME -> {
+                Path<String> name = product.get("name");
+                if (lastId != null) {
+                    predicates.add(after(cb, name, id, (String) lastValue, lastId, descending));
+                }
+                orders.add(descending ? cb.desc(name) : cb.asc(name));
+            }
+        }
+        orders.add(descending ? cb.desc(id) : cb.asc(id));
+
+        query.select(product)
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Postgres puts nulls last ascending and first descending, the order a (value, id) index is read in
+    private static <T extends Comparable<? super T>> Predicate after(CriteriaBuilder cb, Path<T> value, Path<Long> id,
+                                                                      T lastValue, Long lastId, boolean descending) {
+        Predicate idAfter = descending ? cb.lessThan(id, lastId) : cb.greaterThan(id, lastId);
+
+        if (lastValue == null) {
+            Predicate inNulls = cb.and(cb.isNull(value), idAfter);
+            return descending ? cb.or(inNulls, cb.isNotNull(value)) : inNulls;
+        }
+
+        Predicate valueAfter = descending ? cb.lessThan(value, lastValue) : cb.greaterThan(value, lastValue);
+        Predicate keysetAfter = cb.or(valueAfter, cb.and(cb.equal(value, lastValue), idAfter));
+        return descending ? keysetAfter : cb.or(keysetAfter, cb.isNull(value));
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
@@ -0,0 +1,162 @@
+package me.fladoss.microservicesgamestore.product_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductFilter;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductPageResponse;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductSort;
+import me.fladoss.microservicesgamestore.product_service.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+// The first pages of the unfiltered listing in every sort order, already serialized and gzipped,
+// so the bulk of GET /api/product traffic is answered by copying bytes.
+// A committed product change drops the snapshot at once (those requests take the regular path) and
+// it is rebuilt in the background; it is also rebuilt after max-age to pick up other instances' writes.
+// Pages are read from the database, never through the page cache, which may still hold pages from before the change.
+@Component
+@Slf4j
+public class ProductCatalogSnapshot {
+
+    // The listing's default page size
+    public static final int PAGE_SIZE = 24;
+
+    private final ProductService productService;
+
+    private final ObjectMapper objectMapper;
+
+    private final boolean enabled;
+
+    private final int pagesPerOrder;
+
+    private final Duration maxAge;
+
+    private final AtomicBoolean stale = new AtomicBoolean(true);
+
+    private volatile Map<Key, Page> pages = Map.of();
+
+    private volatile Instant builtAt = Instant.EPOCH;
+
+    public record Page(byte[] json, byte[] gzippedJson, String eTag) {
+    }
+
+    private record Key(String sort, String direction, String cursor) {
+    }
+
+    public ProductCatalogSnapshot(ProductService productService,
+                                  ObjectMapper objectMapper,
+                                  @Value("${product.snapshot.enabled:true}") boolean enabled,
+                                  @Value("${product.snapshot.pages-per-order:5}") int pagesPerOrder,
+                                  @Value("${product.snapshot.max-age:1m}") Duration maxAge) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.pagesPerOrder = pagesPerOrder;
+        this.maxAge = maxAge;
+    }
+
+    // Weak ETag over the ids and update times on the page; also used for pages served without the snapshot
+    public static String eTagOf(ProductPageResponse page) {
+        CRC32 checksum = new CRC32();
+        page.getProducts().forEach(product ->
+                checksum.update((product.getId() + ":" + product.getUpdatedAt() + ";").getBytes(StandardCharsets.UTF_8)));
+
+        return "W/\"" + page.getProducts().size() + "-" + Long.toHexString(checksum.getValue()) + "\"";
+    }
+
+    // null when the request is not covered by the snapshot
+    public Page find(ProductFilter filter, String sort, String direction, String cursor, int size) {
+        if (size != PAGE_SIZE || filter.getMinPrice() != null || filter.getMaxPrice() != null
+                || (filter.getNamePrefix() != null && !filter.getNamePrefix().isBlank())) {
+            return null;
+        }
+
+        Map<Key, Page> current = pages;
+        if (current.isEmpty()) {
+            return null;
+        }
+
+        return current.get(new Key(
+                sort.trim().toLowerCase(Locale.ROOT),
+                direction.toLowerCase(Locale.ROOT),
+                cursor == null || cursor.isBlank() ? null : cursor));
+    }
+
+    @TransactionalEventListener
+    public synchronized void onProductChanged(ProductChangedEvent productChangedEvent) {
+        pages = Map.of();
+        stale.set(true);
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${product.snapshot.rebuild-check-interval:200ms}")
+    public void rebuildIfStale() {
+        if (!enabled) {
+            return;
+        }
+        if (!stale.getAndSet(false) && Instant.now().isBefore(builtAt.plus(maxAge))) {
+            return;
+        }
+
+        try {
+            rebuild();
+        } catch (IOException | RuntimeException e) {
+            stale.set(true);
+            log.error("Error building the product catalog snapshot", e);
+        }
+    }
+
+    private void rebuild() throws IOException {
+        Map<Key, Page> rebuilt = new HashMap<>();
+
+        for (ProductSort sort : ProductSort.values()) {
+            for (String direction : new String[]{"asc", "desc"}) {
+                String cursor = null;
+                for (int i = 0; i < pagesPerOrder; i++) {
+                    ProductPageResponse page = productService.readProducts(new ProductFilter(), sort.name(), direction, cursor, PAGE_SIZE);
+                    rebuilt.put(new Key(sort.name().toLowerCase(Locale.ROOT), direction, cursor), toPage(page));
+
+                    cursor = page.getNextCursor();
+                    if (cursor == null) {
+                        break;
+                    }
+                }
+            }
+        }
+
+        synchronized (this) {
+            // A change committed while the pages were read; the next run builds them again
+            if (stale.get()) {
+                return;
+            }
+            pages = Map.copyOf(rebuilt);
+            builtAt = Instant.now();
+        }
+
+        log.debug("Product catalog snapshot rebuilt with {} pages", rebuilt.size());
+    }
+
+    private Page toPage(ProductPageResponse page) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(page);
+
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(gzipped)) {
+            gzip.write(json);
+        }
+
+        return new Page(json, gzipped.toByteArray(), eTagOf(page));
+    }
+}
@@ -1,16 +1,31 @@
 package me.fladoss.microservicesgamestore.product_service.service;
 
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.product_service.config.ProductCacheConfig;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductFilter;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductPageResponse;
 import me.fladoss.microservicesgamestore.product_service.dto.ProductRequest;
 import me.fladoss.microservicesgamestore.product_service.dto.ProductResponse;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductSearchResponse;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductSort;
 import me.fladoss.microservicesgamestore.product_service.entity.Product;
+import me.fladoss.microservicesgamestore.product_service.event.ProductChangedEvent;
 import me.fladoss.microservicesgamestore.product_service.repository.ProductRepository;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
 import java.util.List;
+import java.util.Locale;
 
 @Service
 @RequiredArgsConstructor
@@ -18,14 +33,75 @@ import java.util.List;
 @Transactional
 public class ProductService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final int MAX_SEARCH_RESULTS = 1000;
+
     private final ProductRepository productRepository;
 
-    public List<ProductResponse> getAllProducts() {
-        List<Product> products = productRepository.findAll();
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Keyset pagination: the cursor carries the sort value and id of the last row, so every page is an index range scan.
+    // Cache misses are not read-only transactions and so read the primary: a replica lagging behind a change
+    // would put the page as it was before the change back into the cache.
+    @Cacheable(cacheNames = ProductCacheConfig.PRODUCT_PAGES)
+    public ProductPageResponse getProducts(ProductFilter filter, String sort, String direction, String cursor, int size) {
+        return readProducts(filter, sort, direction, cursor, size);
+    }
+
+    // The same page straight from the database (the primary), bypassing the page cache
+    public ProductPageResponse readProducts(ProductFilter filter, String sort, String direction, String cursor, int size) {
+        ProductSort productSort = parseSort(sort);
+        boolean descending = parseDescending(direction);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Object lastValue = null;
+        Long lastId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            String[] position = decodeCursor(cursor, productSort, descending);
+            lastId = parseCursorId(position[2]);
+            lastValue = parseCursorValue(productSort, position[3]);
+        }
+
+        List<Product> products = productRepository.findPage(filter, productSort, descending, lastValue, lastId, pageSize);
+
+        return ProductPageResponse.builder()
+                .products(products.stream().map(this::mapToProductResponse).toList())
+                .nextCursor(products.size() == pageSize
+                        ? encodeCursor(productSort, descending, products.get(products.size() - 1))
+                        : null)
+                .build();
+    }
+
+    // Ranked full-text search over name and description (web search syntax: quotes, OR, -word).
+    // Offset paging, bounded by MAX_SEARCH_RESULTS, since rank order has no stable keyset.
+    // Cache misses read the primary, like getProducts.
+    @Cacheable(cacheNames = ProductCacheConfig.PRODUCT_SEARCH)
+    public ProductSearchResponse searchProducts(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search query must not be empty");
+        }
+
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int offset = Math.max(0, page) * pageSize;
+        if (offset >= MAX_SEARCH_RESULTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Only the first " + MAX_SEARCH_RESULTS + " results can be paged through");
+        }
 
-        return products.stream().map(this::mapToProductResponse).toList();
+        // One extra row tells whether there is a next page
+        int limit = Math.min(pageSize + 1, MAX_SEARCH_RESULTS - offset);
+        List<Product> products = productRepository.search(query.trim(), limit, offset);
+        boolean hasNext = products.size() > pageSize;
+
+        return ProductSearchResponse.builder()
+                .products(products.stream().limit(pageSize).map(this::mapToProductResponse).toList())
+                .page(Math.max(0, page))
+                .nextPage(hasNext ? Math.max(0, page) + 1 : null)
+                .build();
     }
 
+    // Cache misses read the primary, like getProducts
+    @Cacheable(cacheNames = ProductCacheConfig.PRODUCTS, key = "#id")
     public ProductResponse getProductById(Long id) {
         log.info("Trying to find product with id {} before GET", id);
 
@@ -34,26 +110,32 @@ public class ProductService {
 
         log.info("Product with id {} found! Building a response...", id);
 
-        return ProductResponse.builder()
-                .id(product.getId())
-                .name(product.getName())
-                .description(product.getDescription())
-                .price(product.getPrice())
-                .build();
+        return mapToProductResponse(product);
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ProductCacheConfig.PRODUCT_PAGES, allEntries = true),
+            @CacheEvict(cacheNames = ProductCacheConfig.PRODUCT_SEARCH, allEntries = true)
+    })
     public void createProduct(ProductRequest productRequest) {
         Product product = Product.builder()
+                .skuCode(productRequest.getSkuCode())
                 .name(productRequest.getName())
                 .description(productRequest.getDescription())
                 .price(productRequest.getPrice())
                 .build();
 
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
 
         log.info("Product with id {} created successfully", product.getId());
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ProductCacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = ProductCacheConfig.PRODUCT_PAGES, allEntries = true),
+            @CacheEvict(cacheNames = ProductCacheConfig.PRODUCT_SEARCH, allEntries = true)
+    })
     public void updateProduct(ProductRequest productRequest, Long id) {
         log.info("Searching for a product with id {} before UPDATE", id);
 
@@ -62,30 +144,108 @@ public class ProductService {
 
         log.info("Product with id {} found! Building a new product before creating...", id);
 
+        product.setSkuCode(productRequest.getSkuCode());
         product.setName(productRequest.getName());
         product.setDescription(productRequest.getDescription());
         product.setPrice(productRequest.getPrice());
         productRepository.save(product);
+        eventPublisher.publishEvent(new ProductChangedEvent(product.getId()));
 
         log.info("Product with id {} created successfully", product.getId());
     }
 
+    @Caching(evict = {
+            @CacheEvict(cacheNames = ProductCacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = ProductCacheConfig.PRODUCT_PAGES, allEntries = true),
+            @CacheEvict(cacheNames = ProductCacheConfig.PRODUCT_SEARCH, allEntries = true)
+    })
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND);
         }
 
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProductChangedEvent(id));
 
         log.info("Product with id {} deleted successfully", id);
     }
 
+    private static ProductSort parseSort(String sort) {
+        try {
+            return ProductSort.valueOf(sort.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown sort " + sort);
+        }
+    }
+
+    private static boolean parseDescending(String direction) {
+        if ("asc".equalsIgnoreCase(direction)) {
+            return false;
+        }
+        if ("desc".equalsIgnoreCase(direction)) {
+            return true;
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown direction " + direction);
+    }
+
+    // sort,direction,id,(n | v<value>) in URL-safe base64; opaque to clients
+    private static String encodeCursor(ProductSort sort, boolean descending, Product last) {
+        Object value = switch (sort) {
+            case ID -> null;
+            case PRICE -> last.getPrice() != null ? last.getPrice().toPlainString() : null;
+            case NAME -> last.getName();
+        };
+        String position = sort + "," + (descending ? "desc" : "asc") + "," + last.getId() + "," + (value != null ? "v" + value : "n");
+
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor, ProductSort sort, boolean descending) {
+        String[] position;
+        try {
+            position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(",", 4);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor");
+        }
+
+        if (position.length != 4 || position[3].isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor");
+        }
+        if (!position[0].equals(sort.name()) || !position[1].equals(descending ? "desc" : "asc")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor belongs to a different sort order");
+        }
+        return position;
+    }
+
+    private static Long parseCursorId(String id) {
+        try {
+            return Long.valueOf(id);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor");
+        }
+    }
+
+    private static Object parseCursorValue(ProductSort sort, String value) {
+        if (sort == ProductSort.ID || value.equals("n")) {
+            return null;
+        }
+
+        String raw = value.substring(1);
+        try {
+            return sort == ProductSort.PRICE ? new BigDecimal(raw) : raw;
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed cursor");
+        }
+    }
+
     private ProductResponse mapToProductResponse(Product product) {
         return ProductResponse.builder()
                 .id(product.getId())
+                .skuCode(product.getSkuCode())
                 .name(product.getName())
                 .description(product.getDescription())
                 .price(product.getPrice())
+                .updatedAt(product.getUpdatedAt())
                 .build();
     }
 }
@@ -2,13 +2,17 @@ package me.fladoss.microservicesgamestore.product_service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductFilter;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductPageResponse;
 import me.fladoss.microservicesgamestore.product_service.dto.ProductRequest;
+import me.fladoss.microservicesgamestore.product_service.service.ProductCatalogSnapshot;
 import me.fladoss.microservicesgamestore.product_service.service.ProductService;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.DynamicPropertyRegistry;
 import org.springframework.test.context.DynamicPropertySource;
@@ -19,7 +23,9 @@ import org.testcontainers.containers.PostgreSQLContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
 
+import java.io.ByteArrayInputStream;
 import java.math.BigDecimal;
+import java.util.zip.GZIPInputStream;
 
 @SpringBootTest
 @Testcontainers
@@ -38,6 +44,8 @@ class ProductServiceApplicationTests {
         registry.add("spring.datasource.username", postgreSQLContainer::getUsername);
         registry.add("spring.datasource.password", postgreSQLContainer::getPassword);
         registry.add("spring.liquibase.change-log", () -> "classpath:/db/changelog/liquibase_product.changelog-test.yaml");
+        // Snapshot rebuilds are triggered by the tests
+        registry.add("product.snapshot.rebuild-check-interval", () -> "1h");
     }
 
     @Autowired
@@ -49,6 +57,9 @@ class ProductServiceApplicationTests {
     @Autowired
     private ProductService productService;
 
+    @Autowired
+    private ProductCatalogSnapshot productCatalogSnapshot;
+
     @Test
     void shouldCreateProduct() throws Exception {
         ProductRequest productRequest = getProductRequest();
@@ -70,10 +81,72 @@ class ProductServiceApplicationTests {
     }
 
     @Test
-    void shouldGetAllProducts() throws Exception {
+    void shouldReturnNotModifiedForMatchingETag() throws Exception {
+        String eTag = mockMvc.perform(MockMvcRequestBuilders.get("/api/product/0"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        Assertions.assertNotNull(eTag);
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/product/0").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(MockMvcResultMatchers.status().isNotModified())
+                .andExpect(MockMvcResultMatchers.content().string(""));
+    }
+
+    @Test
+    void shouldGetProductPages() throws Exception {
         mockMvc.perform(MockMvcRequestBuilders.get("/api/product"))
                 .andExpect(MockMvcResultMatchers.status().isOk());
-        Assertions.assertTrue(productService.getAllProducts().size() > 1);
+
+        productService.createProduct(ProductRequest.builder().name("Paging A").price(BigDecimal.valueOf(1.99)).build());
+        productService.createProduct(ProductRequest.builder().name("Paging B").price(BigDecimal.valueOf(2.99)).build());
+
+        ProductFilter filter = ProductFilter.builder().namePrefix("paging").build();
+        ProductPageResponse firstPage = productService.getProducts(filter, "price", "desc", null, 1);
+        Assertions.assertEquals("Paging B", firstPage.getProducts().get(0).getName());
+        Assertions.assertNotNull(firstPage.getNextCursor());
+
+        ProductPageResponse secondPage = productService.getProducts(filter, "price", "desc", firstPage.getNextCursor(), 1);
+        Assertions.assertEquals("Paging A", secondPage.getProducts().get(0).getName());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/product")
+                        .param("sort", "name")
+                        .param("cursor", firstPage.getNextCursor()))
+                .andExpect(MockMvcResultMatchers.status().isBadRequest());
+    }
+
+    @Test
+    void shouldServeGzippedSnapshot() throws Exception {
+        productCatalogSnapshot.rebuildIfStale();
+
+        byte[] body = mockMvc.perform(MockMvcRequestBuilders.get("/api/product").header(HttpHeaders.ACCEPT_ENCODING, "gzip"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            ProductPageResponse page = objectMapper.readValue(gzip, ProductPageResponse.class);
+            Assertions.assertFalse(page.getProducts().isEmpty());
+        }
+    }
+
+    @Test
+    void shouldSearchProducts() throws Exception {
+        productService.createProduct(ProductRequest.builder()
+                .name("Portal 2")
+                .description("Cooperative puzzles with portals")
+                .price(BigDecimal.valueOf(9.99))
+                .build());
+        productService.createProduct(ProductRequest.builder()
+                .name("Puzzle Collection")
+                .description("Includes a portal themed level")
+                .price(BigDecimal.valueOf(4.99))
+                .build());
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/product/search").param("q", "portal"))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.products[0].name").value("Portal 2"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.products[1].name").value("Puzzle Collection"));
     }
 
     @Test
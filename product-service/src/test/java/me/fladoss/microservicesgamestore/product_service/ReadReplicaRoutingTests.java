@@ -0,0 +1,102 @@
+package me.fladoss.microservicesgamestore.product_service;
+
+import me.fladoss.microservicesgamestore.product_service.config.ReplicaLagMonitor;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductRequest;
+import me.fladoss.microservicesgamestore.product_service.repository.ProductRepository;
+import me.fladoss.microservicesgamestore.product_service.service.ProductService;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+
+@SpringBootTest
+@Testcontainers
+class ReadReplicaRoutingTests {
+
+    @Container
+    static PostgreSQLContainer<?> primaryContainer = new PostgreSQLContainer<>("postgres:15.2")
+            .withDatabaseName("product_service_db_test");
+
+    @Container
+    static PostgreSQLContainer<?> replicaContainer = new PostgreSQLContainer<>("postgres:15.2")
+            .withDatabaseName("product_service_db_replica_test")
+            .withInitScript("db/replica/test_replica_products.sql");
+
+    @DynamicPropertySource
+    static void dataSourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", primaryContainer::getJdbcUrl);
+        registry.add("spring.datasource.username", primaryContainer::getUsername);
+        registry.add("spring.datasource.password", primaryContainer::getPassword);
+        registry.add("spring.datasource.replica.url", replicaContainer::getJdbcUrl);
+        registry.add("spring.datasource.replica.username", replicaContainer::getUsername);
+        registry.add("spring.datasource.replica.password", replicaContainer::getPassword);
+        registry.add("spring.liquibase.change-log", () -> "classpath:/db/changelog/liquibase_product.changelog-test.yaml");
+    }
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private DataSource primaryDataSource;
+
+    private TransactionTemplate readOnlyTransactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        readOnlyTransactionTemplate.setReadOnly(true);
+    }
+
+    @Test
+    void shouldReadFromReplica() {
+        replicaLagMonitor.checkLag();
+
+        Assertions.assertTrue(replicaLagMonitor.isReplicaUsable());
+        Assertions.assertEquals("The Talos Principle (replica)", readOnlyTransactionTemplate.execute(status ->
+                productRepository.findById(0L).orElseThrow().getName()));
+    }
+
+    @Test
+    void shouldFillProductCacheFromPrimary() {
+        replicaLagMonitor.checkLag();
+
+        Assertions.assertTrue(replicaLagMonitor.isReplicaUsable());
+        Assertions.assertEquals("The Talos Principle", productService.getProductById(0L).getName());
+    }
+
+    @Test
+    void shouldWriteToPrimary() {
+        productService.createProduct(ProductRequest.builder()
+                .name("Dredge")
+                .description("Fishing, mostly")
+                .price(BigDecimal.valueOf(24.99))
+                .build());
+
+        Integer count = new JdbcTemplate(primaryDataSource)
+                .queryForObject("SELECT COUNT(*) FROM products WHERE name = 'Dredge'", Integer.class);
+        Assertions.assertEquals(1, count);
+    }
+}
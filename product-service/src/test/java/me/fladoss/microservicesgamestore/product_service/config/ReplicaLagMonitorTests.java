@@ -0,0 +1,56 @@
+package me.fladoss.microservicesgamestore.product_service.config;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+
+class ReplicaLagMonitorTests {
+
+    private final JdbcTemplate replicaJdbcTemplate = Mockito.mock(JdbcTemplate.class);
+
+    private final ReplicaLagMonitor replicaLagMonitor = new ReplicaLagMonitor(replicaJdbcTemplate, Duration.ofSeconds(5));
+
+    @Test
+    void shouldUseReplicaOnlyWithinMaxLag() {
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable(), "unusable before the first check");
+
+        reportLag(1_200L);
+        Assertions.assertTrue(replicaLagMonitor.isReplicaUsable());
+
+        reportLag(6_000L);
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable());
+
+        reportLag(0L);
+        Assertions.assertTrue(replicaLagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void shouldNotUseReplicaWithoutWalReceiver() {
+        reportLag(0L);
+
+        // The lag query answers NULL for a standby that lost its upstream
+        reportLag(null);
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable());
+    }
+
+    @Test
+    void shouldNotUseUnreachableReplica() {
+        reportLag(0L);
+
+        Mockito.when(replicaJdbcTemplate.queryForObject(ArgumentMatchers.anyString(), ArgumentMatchers.eq(Long.class)))
+                .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        replicaLagMonitor.checkLag();
+
+        Assertions.assertFalse(replicaLagMonitor.isReplicaUsable());
+    }
+
+    private void reportLag(Long lagMs) {
+        Mockito.when(replicaJdbcTemplate.queryForObject(ArgumentMatchers.anyString(), ArgumentMatchers.eq(Long.class))).thenReturn(lagMs);
+        replicaLagMonitor.checkLag();
+    }
+}
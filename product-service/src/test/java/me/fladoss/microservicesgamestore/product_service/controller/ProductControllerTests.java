@@ -0,0 +1,21 @@
+package me.fladoss.microservicesgamestore.product_service.controller;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class ProductControllerTests {
+
+    @Test
+    void shouldAcceptGzipOnlyWithNonZeroQuality() {
+        Assertions.assertTrue(ProductController.acceptsGzip("gzip, deflate, br"));
+        Assertions.assertTrue(ProductController.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        Assertions.assertTrue(ProductController.acceptsGzip("*"));
+
+        Assertions.assertFalse(ProductController.acceptsGzip(null));
+        Assertions.assertFalse(ProductController.acceptsGzip("identity"));
+        Assertions.assertFalse(ProductController.acceptsGzip("gzip;q=0"));
+        Assertions.assertFalse(ProductController.acceptsGzip("gzip; q=0.000, deflate"));
+        Assertions.assertFalse(ProductController.acceptsGzip("*;q=1, gzip;q=0"));
+        Assertions.assertFalse(ProductController.acceptsGzip("*;q=0"));
+    }
+}
@@ -0,0 +1,48 @@
+package me.fladoss.microservicesgamestore.product_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductFilter;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductPageResponse;
+import me.fladoss.microservicesgamestore.product_service.event.ProductChangedEvent;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+
+class ProductCatalogSnapshotTests {
+
+    private final ProductService productService = Mockito.mock(ProductService.class);
+
+    private final ProductCatalogSnapshot productCatalogSnapshot =
+            new ProductCatalogSnapshot(productService, new ObjectMapper().findAndRegisterModules(), true, 2, Duration.ofMinutes(1));
+
+    @Test
+    void shouldRebuildFromDatabaseNotPageCache() {
+        Mockito.when(productService.readProducts(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                        ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .thenReturn(ProductPageResponse.builder().products(List.of()).build());
+
+        productCatalogSnapshot.rebuildIfStale();
+
+        Assertions.assertNotNull(productCatalogSnapshot.find(new ProductFilter(), "id", "asc", null, ProductCatalogSnapshot.PAGE_SIZE));
+        Mockito.verify(productService, Mockito.never()).getProducts(ArgumentMatchers.any(), ArgumentMatchers.any(),
+                ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.anyInt());
+    }
+
+    @Test
+    void shouldDropSnapshotOnChange() {
+        Mockito.when(productService.readProducts(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(),
+                        ArgumentMatchers.any(), ArgumentMatchers.anyInt()))
+                .thenReturn(ProductPageResponse.builder().products(List.of()).build());
+        productCatalogSnapshot.rebuildIfStale();
+
+        productCatalogSnapshot.onProductChanged(new ProductChangedEvent(1L));
+        Assertions.assertNull(productCatalogSnapshot.find(new ProductFilter(), "id", "asc", null, ProductCatalogSnapshot.PAGE_SIZE));
+
+        productCatalogSnapshot.rebuildIfStale();
+        Assertions.assertNotNull(productCatalogSnapshot.find(new ProductFilter(), "id", "asc", null, ProductCatalogSnapshot.PAGE_SIZE));
+    }
+}
@@ -0,0 +1,125 @@
+package me.fladoss.microservicesgamestore.product_service.service;
+
+import me.fladoss.microservicesgamestore.product_service.config.ProductCacheConfig;
+import me.fladoss.microservicesgamestore.product_service.dto.ProductRequest;
+import me.fladoss.microservicesgamestore.product_service.entity.Product;
+import me.fladoss.microservicesgamestore.product_service.repository.ProductRepository;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@SpringJUnitConfig(ProductServiceCacheTests.TestConfig.class)
+class ProductServiceCacheTests {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final Product product = Product.builder()
+            .id(1L)
+            .skuCode("talos")
+            .name("The Talos Principle")
+            .description("A game about the Talos and it is his Principle")
+            .price(BigDecimal.valueOf(6.49))
+            .build();
+
+    // Whether each findById ran in a read-only transaction, which the routing data source sends to the replica
+    private final List<Boolean> readOnlyLookups = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(productRepository);
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        Mockito.when(productRepository.findById(1L)).thenAnswer(invocation -> {
+            readOnlyLookups.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+            return Optional.of(product);
+        });
+    }
+
+    @Test
+    void shouldReadUpdatedProductAfterUpdate() {
+        Assertions.assertEquals("The Talos Principle", productService.getProductById(1L).getName());
+        Assertions.assertEquals("The Talos Principle", productService.getProductById(1L).getName());
+
+        productService.updateProduct(ProductRequest.builder()
+                .skuCode("talos")
+                .name("The Talos Principle 2")
+                .description("A game about the Talos and it is his Principle")
+                .price(BigDecimal.valueOf(29.99))
+                .build(), 1L);
+
+        Assertions.assertEquals("The Talos Principle 2", productService.getProductById(1L).getName());
+        Assertions.assertEquals("The Talos Principle 2", productService.getProductById(1L).getName());
+        // One miss before the update, the update itself, one miss after it
+        Mockito.verify(productRepository, Mockito.times(3)).findById(1L);
+    }
+
+    @Test
+    void shouldFillCacheFromPrimary() {
+        productService.getProductById(1L);
+        productService.updateProduct(ProductRequest.builder()
+                .skuCode("talos")
+                .name("The Talos Principle 2")
+                .build(), 1L);
+        productService.getProductById(1L);
+
+        Assertions.assertEquals(List.of(false, false, false), readOnlyLookups);
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    @Import({ProductCacheConfig.class, ProductService.class})
+    static class TestConfig {
+
+        @Bean
+        ProductRepository productRepository() {
+            return Mockito.mock(ProductRepository.class);
+        }
+
+        // Transaction boundaries and synchronizations without a database
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return new AbstractPlatformTransactionManager() {
+                @Override
+                protected Object doGetTransaction() {
+                    return new Object();
+                }
+
+                @Override
+                protected void doBegin(Object transaction, TransactionDefinition definition) {
+                }
+
+                @Override
+                protected void doCommit(DefaultTransactionStatus status) {
+                }
+
+                @Override
+                protected void doRollback(DefaultTransactionStatus status) {
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,13 @@
+-- Stand-in for a streaming replica: same table, different rows, so a test can tell which database answered
+CREATE TABLE products
+(
+    id          bigint PRIMARY KEY,
+    sku_code    varchar(30) UNIQUE,
+    name        varchar(255) UNIQUE,
+    description varchar(255),
+    price       decimal,
+    updated_at  timestamp with time zone NOT NULL DEFAULT now()
+);
+
+INSERT INTO products (id, name, description, price)
+VALUES (0, 'The Talos Principle (replica)', 'Served by the replica', 6.49);